@@ -0,0 +1,31 @@
+package com.dustincode.ecommerce;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application context for benchmarks that need the real persistence layer. The security filters need the
+ * MVC beans, so the web server starts too, on a random port nothing calls. The database is the one configured by
+ * {@code DB_URL}, {@code DB_USERNAME} and {@code DB_PASSWORD}, e.g. the MySQL 5.7 {@code db} service of
+ * docker-compose.yml with {@code DB_URL=jdbc:mariadb://localhost:6606/simple_ecommerce}. Benchmarks take the last
+ * TSID node, {@link #TSID_NODE}, so their ids never collide with those of the api running on the same database.
+ */
+public final class BenchmarkApplication {
+
+    public static final String TSID_NODE = "1023";
+
+    private BenchmarkApplication() {}
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        SpringApplication application = new SpringApplication(SimpleEcommerceApplication.class);
+        application.setLogStartupInfo(false);
+        String[] arguments = new String[properties.length + 3];
+        arguments[0] = "--logging.level.root=WARN";
+        arguments[1] = "--server.port=0";
+        arguments[2] = "--spring.jpa.properties.hibernate.id.tsid.node=" + TSID_NODE;
+        for (int i = 0; i < properties.length; i++) {
+            arguments[i + 3] = "--" + properties[i];
+        }
+        return application.run(arguments);
+    }
+}
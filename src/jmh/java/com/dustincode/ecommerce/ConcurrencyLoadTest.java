@@ -0,0 +1,87 @@
+package com.dustincode.ecommerce;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.dustincode.ecommerce.core.constant.HeaderConstants.USER_ACCESS_TOKEN_HEADER;
+
+/**
+ * Keeps a fixed number of requests in flight against a running instance and prints the throughput, to compare the
+ * platform thread pool with {@code spring.threads.virtual.enabled=true}. The default target is the health endpoint,
+ * which borrows a Hikari connection on every call. Run against each mode, e.g.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.dustincode.ecommerce.ConcurrencyLoadTest \
+ *     -Dexec.args="http://localhost:8080/management/health 10000 PT60S [access token]"
+ * </pre>
+ * The client opens one connection per in-flight request, so raise {@code ulimit -n} on both sides first.
+ */
+public final class ConcurrencyLoadTest {
+
+    private static final String DEFAULT_URL = "http://localhost:8080/management/health";
+    private static final int DEFAULT_CONCURRENCY = 10_000;
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(60);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private ConcurrencyLoadTest() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create(args.length > 0 ? args[0] : DEFAULT_URL);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CONCURRENCY;
+        Duration duration = args.length > 2 ? Duration.parse(args[2]) : DEFAULT_DURATION;
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET();
+        if (args.length > 3) {
+            requestBuilder.header(USER_ACCESS_TOKEN_HEADER, args[3]);
+        }
+        HttpRequest request = requestBuilder.build();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder latencyNanos = new LongAdder();
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            long sent = System.nanoTime();
+            CompletableFuture<HttpResponse<Void>> response = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            response.whenComplete((result, exception) -> {
+                if (exception == null && result.statusCode() < 400) {
+                    succeeded.increment();
+                    latencyNanos.add(System.nanoTime() - sent);
+                } else {
+                    failed.increment();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.tryAcquire(concurrency, REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long ok = succeeded.sum();
+        System.out.printf(
+                "%s concurrency=%d duration=%.1fs succeeded=%d failed=%d throughput=%.1f req/s mean latency=%.1f ms%n",
+                uri,
+                concurrency,
+                seconds,
+                ok,
+                failed.sum(),
+                ok / seconds,
+                ok == 0 ? 0 : latencyNanos.sum() / 1e6 / ok
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package com.dustincode.ecommerce.core.filters;
+
+import com.dustincode.ecommerce.core.security.UserAuthentication;
+import com.dustincode.ecommerce.core.security.UserContext;
+import com.dustincode.ecommerce.core.security.jwt.ExtractJwtResult;
+import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.service.AuthService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.dustincode.ecommerce.core.constant.HeaderConstants.USER_ACCESS_TOKEN_HEADER;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Per-request cost of {@link AuthenticationFilter} for a cached access token, and of building the
+ * {@link Authentication} the previous way against {@link UserAuthentication}. The session check is stubbed so only
+ * the filter itself is measured. Run with {@code -prof gc} to get allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationFilterBenchmark {
+
+    static final String SECRET = "X85CsAp6jk0slfJ2r67b0zy8IGPK/Zx6Pi6QT9Of76zy0zGws4cEF1Gn52LAaLxC1tbgVi5hQTTEks1tjZTinQ==";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {};
+
+    private AuthenticationFilter authenticationFilter;
+    private JwtProvider jwtProvider;
+    private String accessToken;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider(SECRET, 100_000);
+        accessToken = jwtProvider.generateTokens(User.builder()
+                .id(1L)
+                .email("benchmark@mailinator.com")
+                .role(Role.USER)
+                .mfaType(MFAType.NONE)
+                .build()
+        ).accessToken();
+        // Stub only, a mock recording every call would grow for the whole run
+        AuthService authService = mock(AuthService.class, withSettings().stubOnly());
+        when(authService.validateSession(any())).thenReturn(true);
+        authenticationFilter = new AuthenticationFilter(
+                jwtProvider,
+                authService,
+                (request, response, handler, exception) -> {
+                    throw new IllegalStateException(exception);
+                }
+        );
+        request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader(USER_ACCESS_TOKEN_HEADER, accessToken);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        authenticationFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication legacyAuthentication() {
+        ExtractJwtResult accessTokenExtracted = jwtProvider.extractClaims(accessToken);
+        UserContext userContext = new UserContext(
+                accessTokenExtracted.getUserId(),
+                accessTokenExtracted.getEmail(),
+                accessTokenExtracted.getTokenId(),
+                accessTokenExtracted.getRefreshTokenId()
+        );
+        return new UsernamePasswordAuthenticationToken(
+                accessTokenExtracted.getUserId(),
+                userContext,
+                accessTokenExtracted.getAuthorities().stream().map(SimpleGrantedAuthority::new).toList()
+        );
+    }
+
+    @Benchmark
+    public Authentication userAuthentication() {
+        ExtractJwtResult accessTokenExtracted = jwtProvider.extractClaims(accessToken);
+        return new UserAuthentication(accessTokenExtracted.userContext(), accessTokenExtracted.grantedAuthorities());
+    }
+}
@@ -0,0 +1,76 @@
+package com.dustincode.ecommerce.core.security;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PasswordProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash and verify cost of BCrypt per strength, the numbers behind {@code application.security.password.target-latency}.
+ * Each strength step doubles the cost. {@code hasherMatches} is the login path, through the {@link PasswordHasher}
+ * executor, so the difference with {@code matches} is the hand-off overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    static final String PASSWORD = "Benchmark@123";
+
+    @Param({"10", "11", "12", "13", "14"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String encodedPassword;
+    private PasswordHasher passwordHasher;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = encoder.encode(PASSWORD);
+        passwordHasher = new PasswordHasher(
+                TestApplicationProperties.builder()
+                        .password(new PasswordProperties(1, 1, Duration.ZERO, strength, strength))
+                        .build(),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, encodedPassword);
+    }
+
+    @Benchmark
+    public boolean hasherMatches() {
+        return passwordHasher.matches(PASSWORD, encodedPassword);
+    }
+}
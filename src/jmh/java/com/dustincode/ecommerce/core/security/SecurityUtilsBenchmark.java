@@ -0,0 +1,56 @@
+package com.dustincode.ecommerce.core.security;
+
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token id generation, called twice per login, and TOTP verification of an MFA login. {@code authorizeMFA} checks
+ * the current code, {@code authorizeMFAWrongCode} a code that matches none of the time windows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityUtilsBenchmark {
+
+    private String mfaSecret;
+    private String mfaCode;
+    private String wrongMfaCode;
+
+    @Setup
+    public void setUp() {
+        GoogleAuthenticator googleAuthenticator = new GoogleAuthenticator();
+        mfaSecret = googleAuthenticator.createCredentials().getKey();
+        int code = googleAuthenticator.getTotpPassword(mfaSecret);
+        mfaCode = String.format("%06d", code);
+        wrongMfaCode = String.format("%06d", (code + 500_000) % 1_000_000);
+    }
+
+    @Benchmark
+    public String generateRandomCode() {
+        return SecurityUtils.generateRandomCode();
+    }
+
+    @Benchmark
+    public boolean authorizeMFA() {
+        return SecurityUtils.authorizeMFA(mfaSecret, mfaCode);
+    }
+
+    @Benchmark
+    public boolean authorizeMFAWrongCode() {
+        return SecurityUtils.authorizeMFA(mfaSecret, wrongMfaCode);
+    }
+}
@@ -0,0 +1,93 @@
+package com.dustincode.ecommerce.core.security.jwt;
+
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of verifying an access token: the previous parser-per-call path, a shared parser and
+ * the verified-token cache used by {@link JwtProvider#extractClaims(String)}. Expired and tampered tokens are never
+ * cached, so {@code extractClaimsExpired} and {@code extractClaimsInvalid} measure a full parse every time. Run with
+ * {@code -prof gc} to get allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtExtractClaimsBenchmark {
+
+    static final String SECRET = "X85CsAp6jk0slfJ2r67b0zy8IGPK/Zx6Pi6QT9Of76zy0zGws4cEF1Gn52LAaLxC1tbgVi5hQTTEks1tjZTinQ==";
+
+    private Key signingKey;
+    private JwtProvider jwtProvider;
+    private String accessToken;
+    private String expiredToken;
+    private String invalidToken;
+
+    @Setup
+    public void setUp() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        jwtProvider = new JwtProvider(SECRET, 100_000);
+        accessToken = jwtProvider.generateTokens(User.builder()
+                .id(1L)
+                .email("benchmark@mailinator.com")
+                .role(Role.USER)
+                .mfaType(MFAType.NONE)
+                .build()
+        ).accessToken();
+        expiredToken = Jwts.builder()
+                .setId("expired")
+                .claim("userId", 1L)
+                .setSubject("benchmark@mailinator.com")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 7_200_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 3_600_000))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+        invalidToken = accessToken.substring(0, accessToken.length() - 4) + "AAAA";
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build()
+                .parseClaimsJws(accessToken)
+                .getBody();
+    }
+
+    @Benchmark
+    public ExtractJwtResult extractClaims() {
+        return jwtProvider.extractClaims(accessToken);
+    }
+
+    @Benchmark
+    public ExtractJwtResult extractClaimsExpired() {
+        return jwtProvider.extractClaims(expiredToken);
+    }
+
+    @Benchmark
+    public ExtractJwtResult extractClaimsInvalid() {
+        return jwtProvider.extractClaims(invalidToken);
+    }
+}
@@ -0,0 +1,60 @@
+package com.dustincode.ecommerce.core.security.jwt;
+
+import com.dustincode.ecommerce.user.dto.UserSessionRefresh;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing tokens at login and at refresh. The refresh token is verified once in the setup, so
+ * {@code refreshAccessToken} reads it from the verified-token cache like a second refresh would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtProviderBenchmark {
+
+    private JwtProvider jwtProvider;
+    private User user;
+    private UserSessionRefresh session;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider(JwtExtractClaimsBenchmark.SECRET, 100_000);
+        user = User.builder()
+                .id(1L)
+                .email("benchmark@mailinator.com")
+                .role(Role.USER)
+                .mfaType(MFAType.NONE)
+                .build();
+        session = new UserSessionRefresh(1L, user.getId(), user.getEmail(), user.getRole(), user.getMfaType(), 0L);
+        refreshToken = jwtProvider.generateTokens(user).refreshToken();
+        jwtProvider.extractClaims(refreshToken);
+    }
+
+    @Benchmark
+    public GenerateJwtResult generateTokens() {
+        return jwtProvider.generateTokens(user);
+    }
+
+    @Benchmark
+    public GenerateJwtResult refreshAccessToken() {
+        return jwtProvider.refreshAccessToken(refreshToken, session);
+    }
+}
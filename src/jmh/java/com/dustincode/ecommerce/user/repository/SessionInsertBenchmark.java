@@ -0,0 +1,96 @@
+package com.dustincode.ecommerce.user.repository;
+
+import com.dustincode.ecommerce.BenchmarkApplication;
+import com.dustincode.ecommerce.core.security.SecurityUtils;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Session rows inserted per second through JPA. {@code batchSize=1} sends one statement per row as the IDENTITY ids
+ * forced, {@code batchSize=25} the configured JDBC batch the application generated ids allow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionInsertBenchmark {
+
+    static final int ROWS_PER_TRANSACTION = 100;
+
+    @Param({"1", "25"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+    private UserSessionRepository userSessionRepository;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "application.security.session.maximum-per-user=" + Integer.MAX_VALUE
+        );
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        userSessionRepository = context.getBean(UserSessionRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        user = transaction.execute(status -> userRepository.save(new User(
+                Role.USER,
+                "insert-benchmark-" + batchSize + "@mailinator.com",
+                "+8491" + (1000000 + batchSize),
+                "not-a-hash",
+                "Benchmark",
+                "Benchmark"
+        )));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from t_user_sessions where fk_user_id = ?", user.getId());
+            jdbcTemplate.update("delete from t_user_details where fk_user_id = ?", user.getId());
+            jdbcTemplate.update("delete from t_users where id = ?", user.getId());
+        });
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public void insertSessions() {
+        Instant expireTime = Instant.now().plusSeconds(3600);
+        transaction.executeWithoutResult(status -> userSessionRepository.saveAll(IntStream.range(0, ROWS_PER_TRANSACTION)
+                .mapToObj(i -> user.newUserSession(
+                        SecurityUtils.generateRandomCode(),
+                        SecurityUtils.generateRandomCode(),
+                        expireTime
+                ))
+                .toList()
+        ));
+    }
+}
@@ -0,0 +1,111 @@
+package com.dustincode.ecommerce.user.service;
+
+import com.dustincode.ecommerce.BenchmarkApplication;
+import com.dustincode.ecommerce.core.id.TsidFactory;
+import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
+import com.dustincode.ecommerce.user.dto.LoginRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Login latency for a user who already owns {@code sessionCount} sessions. With the append-only insert the latency
+ * must stay flat from 1 to 100k sessions. The user's password is hashed with BCrypt cost 4, and the application is
+ * held to that strength so the first login does not upgrade the hash, so the hash does not drown the persistence cost
+ * being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginSessionCountBenchmark {
+
+    static final String PASSWORD = "Benchmark@123";
+    static final int PASSWORD_STRENGTH = 4;
+
+    @Param({"1", "100", "10000", "100000"})
+    public int sessionCount;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transaction;
+    private AuthService authService;
+    private LoginRequest request;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without a cap every login would evict the sessions this benchmark is about
+        context = BenchmarkApplication.start(
+                "application.security.session.maximum-per-user=" + Integer.MAX_VALUE,
+                "application.security.password.min-strength=" + PASSWORD_STRENGTH,
+                "application.security.password.max-strength=" + PASSWORD_STRENGTH
+        );
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        authService = context.getBean(AuthService.class);
+
+        String email = "login-benchmark-" + sessionCount + "@mailinator.com";
+        String passwordHash = new BCryptPasswordEncoder(PASSWORD_STRENGTH).encode(PASSWORD);
+        TsidFactory ids = TsidFactory.forNode(BenchmarkApplication.TSID_NODE);
+        userId = ids.next();
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update(
+                    "insert into t_users (id, email, phone, password, role, mfa_type, session_version) values (?, ?, ?, ?, 'USER', 'NONE', 0)",
+                    userId, email, "+84" + (100000000 + sessionCount), passwordHash);
+            Timestamp expireTime = Timestamp.from(Instant.now().plusSeconds(3600));
+            jdbcTemplate.batchUpdate(
+                    "insert into t_user_sessions (id, access_token_id, refresh_token_id, expire_time, fk_user_id) values (?, ?, ?, ?, ?)",
+                    IntStream.range(0, sessionCount).mapToObj(i -> new Object[]{
+                            ids.next(), randomId(), randomId(), expireTime, userId
+                    }).toList()
+            );
+        });
+
+        request = LoginRequest.builder()
+                .email(email)
+                .password(PASSWORD)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from t_user_sessions where fk_user_id = ?", userId);
+            jdbcTemplate.update("delete from t_users where id = ?", userId);
+        });
+        context.close();
+    }
+
+    @Benchmark
+    public GenerateJwtResult login() {
+        return authService.login(request, "127.0.0.1");
+    }
+
+    private static String randomId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,150 @@
+package com.dustincode.ecommerce.user.service;
+
+import com.dustincode.ecommerce.BenchmarkApplication;
+import com.dustincode.ecommerce.core.id.TsidFactory;
+import com.dustincode.ecommerce.core.utils.query.FullTextFunctions;
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.core.utils.query.QueryService;
+import com.dustincode.ecommerce.core.utils.query.QueryShape;
+import com.dustincode.ecommerce.core.utils.query.filter.StringFilter;
+import com.dustincode.ecommerce.user.dto.UserCriteria;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.User_;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Latency of one search page with an email {@code contains} on a {@code rows} users table, MySQL or MariaDB only.
+ * {@code like} is the {@code upper(email) like '%X%'} of an unregistered column, {@code fullText} is
+ * {@link UserQueryService#findByCriteria} going through {@code idx_users_email_fulltext}, n-grams on MySQL and words on
+ * MariaDB.
+ * <p>
+ * A {@code rare} value, {@code .1234@}, matches one user, the LIKE reads the whole table to find it. It starts with a
+ * delimiter so the number is a whole word for MariaDB's index. A {@code common} value, {@code @} and the mail domain,
+ * matches a quarter of the users, the LIKE stops after the first page of {@code idx_users_created_date_id}
+ * while the index hands over every match to be sorted, so the LIKE is expected to win there.
+ * <p>
+ * The first run fills {@code t_users} up to {@code rows} in batches of {@value #SEED_BATCH}, which takes a while at
+ * 10M rows, and keeps them for the next runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserFullTextSearchBenchmark {
+
+    static final int PAGE_SIZE = 20;
+    static final int SEED_BATCH = 10_000;
+    static final String EMAIL_PREFIX = "fulltext";
+    static final List<String> DOMAINS = List.of("gmail.com", "yahoo.com", "outlook.com", "mailinator.com");
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"rare", "common"})
+    public String value;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private EntityManager entityManager;
+    private UserQueryService userQueryService;
+    private LikeSearch likeSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        entityManager = context.getBean(EntityManager.class);
+        if (!FullTextFunctions.isRegistered(entityManager)) {
+            throw new IllegalStateException("The full-text search needs MySQL or MariaDB, set DB_URL to one of them");
+        }
+        userQueryService = context.getBean(UserQueryService.class);
+        likeSearch = new LikeSearch();
+        seed(context.getBean(JdbcTemplate.class));
+        transaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> like() {
+        StringFilter email = nextEmailFilter();
+        return transaction.execute(status -> likeSearch.find(entityManager, email));
+    }
+
+    @Benchmark
+    public List<User> fullText() {
+        UserCriteria criteria = new UserCriteria();
+        criteria.setEmail(nextEmailFilter());
+        return userQueryService.findByCriteria(criteria, null, PAGE_SIZE, PaginationMode.SLICE).window().getContent();
+    }
+
+    /** Numbers from 1000 up, shorter ones are below InnoDB's minimum word length */
+    private StringFilter nextEmailFilter() {
+        String contains = "rare".equals(value)
+                ? "." + ThreadLocalRandom.current().nextInt(1_000, rows + 1) + "@"
+                : "@" + DOMAINS.get(ThreadLocalRandom.current().nextInt(DOMAINS.size()));
+        return new StringFilter().setContains(contains);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Integer seeded = jdbcTemplate.queryForObject("select count(*) from t_users where email like ?", Integer.class, EMAIL_PREFIX + "%");
+        TsidFactory ids = TsidFactory.forNode(BenchmarkApplication.TSID_NODE);
+        Instant now = Instant.now();
+        for (int from = seeded == null ? 0 : seeded; from < rows; from += SEED_BATCH) {
+            List<Object[]> batch = IntStream.rangeClosed(from + 1, Math.min(from + SEED_BATCH, rows))
+                    .mapToObj(seq -> new Object[]{
+                            ids.next(),
+                            EMAIL_PREFIX + "." + seq + "@" + DOMAINS.get(seq % DOMAINS.size()),
+                            "+1" + seq,
+                            Timestamp.from(now.minusSeconds(seq))
+                    })
+                    .toList();
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "insert into t_users (id, email, phone, password, role, mfa_type, session_version, created_date) "
+                            + "values (?, ?, ?, 'x', 'USER', 'NONE', 0, ?)",
+                    batch));
+        }
+        jdbcTemplate.execute("analyze table t_users");
+    }
+
+    /** The same search with the email left unregistered, so contains is the LIKE alone */
+    static final class LikeSearch extends QueryService<User> {
+
+        List<User> find(EntityManager entityManager, StringFilter email) {
+            QueryShape shape = new QueryShape("u");
+            compileStringFilter(shape, email, User_.email);
+            return shape.createQuery(entityManager, "select u from User u left join fetch u.userDetail", "u.createdDate desc, u.id desc", User.class)
+                    .setMaxResults(PAGE_SIZE + 1)
+                    .getResultList();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.dustincode.ecommerce.user.service;
+
+import com.dustincode.ecommerce.BenchmarkApplication;
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.core.utils.query.QueryService;
+import com.dustincode.ecommerce.core.utils.query.filter.InstantFilter;
+import com.dustincode.ecommerce.core.utils.query.filter.StringFilter;
+import com.dustincode.ecommerce.user.dto.UserCriteria;
+import com.dustincode.ecommerce.user.dto.UserCriteria.MFATypeFilter;
+import com.dustincode.ecommerce.user.dto.UserCriteria.RoleFilter;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.User_;
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one search page per combination of filters, with values that change on every call like they do between
+ * requests. {@code specification} builds a criteria query through the {@code QueryService} specifications, which
+ * Hibernate translates to SQL on every execution. {@code compiled} is {@link UserQueryService#findByCriteria}, whose
+ * JPQL is the same for every call of a shape and comes from the query plan cache. The difference is the translation
+ * cost, the round trip is the same for both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    static final int PAGE_SIZE = 20;
+    static final Instant CREATED_DATE = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Param({"email.contains", "email.contains+createdDate.range", "role.in+mfaType.equals+createdDate.greaterThan", "phone.equals+createdDate.range"})
+    public String shape;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private EntityManager entityManager;
+    private UserQueryService userQueryService;
+    private SpecificationSearch specificationSearch;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(true);
+        entityManager = context.getBean(EntityManager.class);
+        userQueryService = context.getBean(UserQueryService.class);
+        specificationSearch = new SpecificationSearch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> specification() {
+        UserCriteria criteria = nextCriteria();
+        return transaction.execute(status -> specificationSearch.find(entityManager, criteria));
+    }
+
+    @Benchmark
+    public List<User> compiled() {
+        return userQueryService.findByCriteria(nextCriteria(), null, PAGE_SIZE, PaginationMode.SLICE).window().getContent();
+    }
+
+    private UserCriteria nextCriteria() {
+        long call = calls++;
+        Instant from = CREATED_DATE.plusSeconds(call % 86_400);
+        UserCriteria criteria = new UserCriteria();
+        switch (shape) {
+            case "email.contains" -> criteria.setEmail(new StringFilter().setContains("user" + call % 100));
+            case "email.contains+createdDate.range" -> {
+                criteria.setEmail(new StringFilter().setContains("user" + call % 100));
+                criteria.setCreatedDate(new InstantFilter().setGreaterThanOrEqual(from).setLessThan(from.plusSeconds(86_400)));
+            }
+            case "role.in+mfaType.equals+createdDate.greaterThan" -> {
+                criteria.setRole((RoleFilter) new RoleFilter().setIn(call % 2 == 0 ? List.of(Role.USER) : List.of(Role.USER, Role.ADMIN)));
+                criteria.setMfaType((MFATypeFilter) new MFATypeFilter().setEquals(MFAType.NONE));
+                criteria.setCreatedDate(new InstantFilter().setGreaterThan(from));
+            }
+            case "phone.equals+createdDate.range" -> {
+                criteria.setPhone((StringFilter) new StringFilter().setEquals("+849" + (10_000_000 + call % 1_000_000)));
+                criteria.setCreatedDate(new InstantFilter().setGreaterThanOrEqual(from).setLessThan(from.plusSeconds(86_400)));
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+        return criteria;
+    }
+
+    /** The search as a criteria query, like Spring Data runs a {@link Specification} */
+    static final class SpecificationSearch extends QueryService<User> {
+
+        List<User> find(EntityManager entityManager, UserCriteria criteria) {
+            Specification<User> specification = Specification.where(null);
+            if (criteria.getEmail() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getEmail(), User_.email));
+            }
+            if (criteria.getPhone() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getPhone(), User_.phone));
+            }
+            if (criteria.getRole() != null) {
+                specification = specification.and(buildSpecification(criteria.getRole(), User_.role));
+            }
+            if (criteria.getMfaType() != null) {
+                specification = specification.and(buildSpecification(criteria.getMfaType(), User_.mfaType));
+            }
+            if (criteria.getCreatedDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getCreatedDate(), User_.createdDate));
+            }
+
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<User> query = builder.createQuery(User.class);
+            Root<User> root = query.from(User.class);
+            root.fetch(User_.userDetail, JoinType.LEFT);
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.orderBy(builder.desc(root.get(User_.createdDate)), builder.desc(root.get(User_.id)));
+            return entityManager.createQuery(query).setMaxResults(PAGE_SIZE + 1).getResultList();
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.dustincode.ecommerce.core.configs;
 
+import com.dustincode.ecommerce.core.security.SessionMode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.web.cors.CorsConfiguration;
 
+import java.time.Duration;
+
 @Getter
 @RequiredArgsConstructor
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
@@ -13,17 +16,77 @@ public class ApplicationProperties {
     private final String basePortalUrl;
     private final SecurityProperties security;
     private final CorsConfiguration cors;
+    private final UserImportProperties userImport;
+    private final PaginationProperties pagination;
 
     public record SecurityProperties(
             JwtProperties jwt,
-            MFAProperties mfa
+            MFAProperties mfa,
+            SessionProperties session,
+            PurgeProperties purge,
+            PasswordProperties password,
+            LoginThrottleProperties loginThrottle
     ) {}
 
     public record JwtProperties(
-            String secret
+            String secret,
+            long verifiedTokenCacheSize
     ) {}
 
     public record MFAProperties(
             String issuer
     ) {}
+
+    public record SessionProperties(
+            SessionMode mode,
+            SessionCacheProperties cache,
+            RevocationProperties revocation,
+            Duration refreshGrace,
+            int maximumPerUser
+    ) {}
+
+    public record SessionCacheProperties(
+            long maximumSize,
+            Duration negativeTtl,
+            Duration versionTtl
+    ) {}
+
+    public record RevocationProperties(
+            long expectedRevocations,
+            double falsePositiveProbability
+    ) {}
+
+    public record PurgeProperties(
+            boolean enabled,
+            int chunkSize,
+            Duration pause,
+            Duration interval
+    ) {}
+
+    public record PasswordProperties(
+            int hashingThreads,
+            int hashingQueueCapacity,
+            Duration targetLatency,
+            int minStrength,
+            int maxStrength
+    ) {}
+
+    public record LoginThrottleProperties(
+            int identifierCapacity,
+            int ipCapacity,
+            Duration refillInterval,
+            long maximumKeys,
+            Duration flushInterval
+    ) {}
+
+    public record UserImportProperties(
+            int chunkSize
+    ) {}
+
+    public record PaginationProperties(
+            Duration estimateRefresh,
+            Duration estimateExpiry,
+            long estimateCacheSize,
+            int estimateConcurrency
+    ) {}
 }
@@ -0,0 +1,27 @@
+package com.dustincode.ecommerce.core.configs;
+
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider;
+import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Lets {@code @Scheduled} jobs annotated with {@code @SchedulerLock} run on a single instance at a time. The lock is a
+ * row of the {@code shedlock} table and its times come from the database clock, so instances with skewed clocks agree.
+ */
+@Configuration
+@EnableSchedulerLock(defaultLockAtMostFor = "PT30M")
+public class SchedulerLockConfiguration {
+
+    @Bean
+    public LockProvider lockProvider(DataSource dataSource) {
+        return new JdbcTemplateLockProvider(JdbcTemplateLockProvider.Configuration.builder()
+                .withJdbcTemplate(new JdbcTemplate(dataSource))
+                .usingDbTime()
+                .build());
+    }
+}
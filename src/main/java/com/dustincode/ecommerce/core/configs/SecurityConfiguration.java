@@ -54,6 +54,7 @@ public class SecurityConfiguration {
                         .requestMatchers(new AntPathRequestMatcher("/api/v1/reset-password/**")).permitAll()
 
                         .requestMatchers(new AntPathRequestMatcher("/api/common/**")).permitAll()
+                        .requestMatchers(new AntPathRequestMatcher("/management/health")).permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
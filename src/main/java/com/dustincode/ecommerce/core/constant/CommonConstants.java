@@ -5,4 +5,5 @@ public final class CommonConstants {
     private CommonConstants() {}
 
     public static final String REFRESH_TOKEN_URL = "/api/v1/refresh-token";
+    public static final String TEXT_CSV_VALUE = "text/csv";
 }
@@ -27,4 +27,13 @@ public final class MessageConstant {
     public static final String PHONE_ALREADY_EXIST_ERR = "error.validate.user.phone.already-exist";
 
     public static final String INVALID_RESET_PASSWORD_TOKEN_ERR = "error.validate.reset-password.token.invalid";
+
+    public static final String PASSWORD_HASHING_BUSY_ERR = "error.system.password-hashing.busy";
+
+    public static final String IMPORT_ROW_MALFORMED_ERR = "error.validate.import.row.malformed";
+    public static final String IMPORT_CHUNK_FAILED_ERR = "error.system.import.chunk-failed";
+
+    public static final String INVALID_CURSOR_ERR = "error.validate.cursor.invalid";
+    public static final String INVALID_PAGE_SIZE_ERR = "error.validate.page-size.invalid";
+    public static final String IN_FILTER_TOO_LONG_ERR = "error.validate.filter.in.too-long";
 }
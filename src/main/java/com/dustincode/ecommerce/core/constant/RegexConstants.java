@@ -6,4 +6,5 @@ public final class RegexConstants {
 
     public static final String PASSWORD_REGEX = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,50}$";
     public static final String PHONE_REGEX = "^\\+?[1-9][0-9]{7,14}$";
+    public static final String BCRYPT_HASH_REGEX = "^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$";
 }
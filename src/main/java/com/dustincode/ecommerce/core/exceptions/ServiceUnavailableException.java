@@ -0,0 +1,11 @@
+package com.dustincode.ecommerce.core.exceptions;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+public class ServiceUnavailableException extends AbstractThrowableProblem {
+
+    public ServiceUnavailableException(String message) {
+        super(null, "Service Unavailable", Status.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dustincode.ecommerce.core.exceptions;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+public class TooManyRequestsException extends AbstractThrowableProblem {
+
+    public TooManyRequestsException(String message) {
+        super(null, "Too Many Requests", Status.TOO_MANY_REQUESTS, message);
+    }
+}
@@ -1,7 +1,7 @@
 package com.dustincode.ecommerce.core.filters;
 
 import com.dustincode.ecommerce.core.exceptions.AuthenticationException;
-import com.dustincode.ecommerce.core.security.UserContext;
+import com.dustincode.ecommerce.core.security.UserAuthentication;
 import com.dustincode.ecommerce.core.security.jwt.ExtractJwtResult;
 import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
 import com.dustincode.ecommerce.user.service.AuthService;
@@ -13,16 +13,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
-import java.util.Set;
 
 import static com.dustincode.ecommerce.core.constant.CommonConstants.REFRESH_TOKEN_URL;
 import static com.dustincode.ecommerce.core.constant.HeaderConstants.USER_ACCESS_TOKEN_HEADER;
@@ -69,23 +66,13 @@ public class AuthenticationFilter extends OncePerRequestFilter {
                 throw new AuthenticationException(ACCESS_TOKEN_EXPIRED_ERR);
             }
 
-            if (!authService.validateSession(accessTokenExtracted.getTokenId())) {
+            if (!authService.validateSession(accessTokenExtracted)) {
                 throw new AuthenticationException(ACCESS_TOKEN_INVALID_ERR);
             }
 
-            final Set<String> authorities = accessTokenExtracted.getAuthorities();
-
-            UserContext userContext = new UserContext(
-                    accessTokenExtracted.getUserId(),
-                    accessTokenExtracted.getEmail(),
-                    accessTokenExtracted.getTokenId(),
-                    accessTokenExtracted.getRefreshTokenId()
-            );
-
-            final Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    accessTokenExtracted.getUserId(),
-                    userContext,
-                    authorities.stream().map(SimpleGrantedAuthority::new).toList()
+            final Authentication authentication = new UserAuthentication(
+                    accessTokenExtracted.userContext(),
+                    accessTokenExtracted.grantedAuthorities()
             );
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,17 @@
+package com.dustincode.ecommerce.core.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns the id from {@link TsidFactory} before the insert, which keeps JDBC batching of inserts possible.
+ */
+@IdGeneratorType(TsidIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Tsid {
+}
@@ -0,0 +1,67 @@
+package com.dustincode.ecommerce.core.id;
+
+import com.dustincode.ecommerce.core.utils.StringUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-sorted 64-bit ids: 42 bits of milliseconds since {@link #EPOCH}, 10 bits of node id and a 12 bits counter.
+ * <p>
+ * Ids of one node are strictly increasing, up to 4096 per millisecond, the counter borrows the next millisecond when
+ * it overflows and the clock going backwards is ignored. Ids are unique across instances as long as every instance
+ * runs with its own node id between 0 and 1023 ({@code TSID_NODE}), startup fails without one.
+ * <p>
+ * The id columns keep their {@code auto_increment} from before, but every row must get its id here. InnoDB moves the
+ * counter past the largest explicit id, so a row inserted without one gets an id right after the latest TSID, which
+ * a later TSID of the same millisecond can collide with.
+ */
+public final class TsidFactory {
+
+    public static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int COUNTER_BITS = 12;
+    static final int MAXIMUM_NODE = (1 << NODE_BITS) - 1;
+
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final Map<Integer, TsidFactory> FACTORIES = new ConcurrentHashMap<>();
+
+    private final long node;
+    private final Clock clock;
+    /** Time of the last id shifted left by {@link #COUNTER_BITS}, plus its counter */
+    private final AtomicLong last = new AtomicLong();
+
+    TsidFactory(int node, Clock clock) {
+        if (node < 0 || node > MAXIMUM_NODE) {
+            throw new IllegalArgumentException("TSID node must be between 0 and " + MAXIMUM_NODE + ", was " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the factory shared by every entity of this JVM for the node, so ids are unique across tables too
+     */
+    public static TsidFactory forNode(String node) {
+        if (StringUtils.isBlank(node)) {
+            throw new IllegalStateException("No TSID node configured, set TSID_NODE to a value between 0 and "
+                    + MAXIMUM_NODE + " that no other running instance uses");
+        }
+        return FACTORIES.computeIfAbsent(Integer.parseInt(node.trim()), id -> new TsidFactory(id, Clock.systemUTC()));
+    }
+
+    public long next() {
+        long now = clock.millis() - EPOCH.toEpochMilli();
+        long next = last.updateAndGet(previous -> Math.max(now << COUNTER_BITS, previous + 1));
+        long time = next >>> COUNTER_BITS;
+        return (time << (NODE_BITS + COUNTER_BITS)) | (node << COUNTER_BITS) | (next & COUNTER_MASK);
+    }
+
+    public static Instant timestampOf(long tsid) {
+        return EPOCH.plusMillis(tsid >>> (NODE_BITS + COUNTER_BITS));
+    }
+}
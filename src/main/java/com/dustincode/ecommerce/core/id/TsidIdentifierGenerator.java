@@ -0,0 +1,32 @@
+package com.dustincode.ecommerce.core.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate side of {@link Tsid}. The node id is read from the {@value #NODE_SETTING} setting, i.e.
+ * {@code spring.jpa.properties.hibernate.id.tsid.node}.
+ */
+public class TsidIdentifierGenerator implements IdentifierGenerator {
+
+    public static final String NODE_SETTING = "hibernate.id.tsid.node";
+
+    private final TsidFactory tsidFactory;
+
+    public TsidIdentifierGenerator(Tsid config, Member member, CustomIdGeneratorCreationContext context) {
+        Object node = context.getServiceRegistry()
+                .getService(ConfigurationService.class)
+                .getSettings()
+                .get(NODE_SETTING);
+        this.tsidFactory = TsidFactory.forNode(node == null ? null : node.toString());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return tsidFactory.next();
+    }
+}
@@ -0,0 +1,214 @@
+package com.dustincode.ecommerce.core.security;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PasswordProperties;
+import com.dustincode.ecommerce.core.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.dustincode.ecommerce.core.constant.MessageConstant.PASSWORD_HASHING_BUSY_ERR;
+import static com.dustincode.ecommerce.core.constant.RegexConstants.BCRYPT_HASH_REGEX;
+
+/**
+ * Runs BCrypt on a dedicated executor sized to the CPU count with a bounded queue, so a burst of logins cannot take
+ * every request thread and every core. When the queue is full the call fails right away with 503 instead of waiting.
+ * <p>
+ * The BCrypt strength is calibrated at startup: the highest strength between {@code minStrength} and
+ * {@code maxStrength} whose hash fits in {@code targetLatency} on this host. Hashes made with a lower strength are
+ * reported by {@link #upgradeEncoding(String)} so they can be rehashed on the next successful login. Bulk jobs use
+ * {@link #encodeAll(List)}, which hashes with {@code minStrength} and relies on that upgrade.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    public static final String EXECUTOR_NAME = "security.password.hashing";
+
+    private static final int CALIBRATION_ROUNDS = 3;
+    private static final String CALIBRATION_PASSWORD = "Calibration@123";
+    private static final Pattern BCRYPT_HASH = Pattern.compile(BCRYPT_HASH_REGEX);
+
+    private final BCryptPasswordEncoder encoder;
+    private final BCryptPasswordEncoder bulkEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer bulkEncodeTimer;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    public PasswordHasher(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        PasswordProperties properties = applicationProperties.getSecurity().password();
+        int threads = properties.hashingThreads() > 0
+                ? properties.hashingThreads()
+                : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.hashingQueueCapacity()),
+                new CustomizableThreadFactory("ecommerce-password-hashing-")
+        );
+        int strength = calibrateStrength(properties);
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.bulkEncoder = new BCryptPasswordEncoder(properties.minStrength());
+        log.info(
+                "Password hashing executor: {} threads, queue capacity {}, BCrypt strength {}",
+                threads,
+                properties.hashingQueueCapacity(),
+                strength
+        );
+
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, List.of()).bindTo(meterRegistry);
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchTimer = hashTimer(meterRegistry, "match");
+        this.bulkEncodeTimer = hashTimer(meterRegistry, "bulk-encode");
+        this.waitTimer = Timer.builder(EXECUTOR_NAME + ".wait")
+                .description("Time a password hashing task waits in the queue")
+                .register(meterRegistry);
+        this.rejections = Counter.builder(EXECUTOR_NAME + ".rejections")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder(EXECUTOR_NAME + ".strength", () -> strength)
+                .description("BCrypt strength used for new hashes")
+                .register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hashes the passwords in parallel across the hashing threads, in waves no larger than the pool so a bulk job
+     * never fills the queue logins rely on. A task that still finds the queue full runs on the calling thread, which
+     * slows the job down instead of failing it.
+     *
+     * @return the hashes in the order of {@code rawPasswords}
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int waveSize = executor.getMaximumPoolSize();
+        List<String> encodedPasswords = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += waveSize) {
+            List<Future<String>> wave = new ArrayList<>(waveSize);
+            for (String rawPassword : rawPasswords.subList(from, Math.min(from + waveSize, rawPasswords.size()))) {
+                Callable<String> task = () -> bulkEncoder.encode(rawPassword);
+                try {
+                    wave.add(schedule(bulkEncodeTimer, task));
+                } catch (RejectedExecutionException e) {
+                    rejections.increment();
+                    FutureTask<String> inline = new FutureTask<>(() -> bulkEncodeTimer.recordCallable(task));
+                    inline.run();
+                    wave.add(inline);
+                }
+            }
+            for (Future<String> future : wave) {
+                encodedPasswords.add(await(future));
+            }
+        }
+        return encodedPasswords;
+    }
+
+    /**
+     * @return true when the value already is a BCrypt hash rather than a raw password
+     */
+    public boolean isEncoded(String password) {
+        return password != null && BCRYPT_HASH.matcher(password).matches();
+    }
+
+    /**
+     * @return true when the hash was made with a lower strength than the calibrated one
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    <T> T submit(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = schedule(timer, task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceUnavailableException(PASSWORD_HASHING_BUSY_ERR);
+        }
+        return await(future);
+    }
+
+    private <T> Future<T> schedule(Timer timer, Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        return executor.submit(() -> {
+            waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            return timer.recordCallable(task);
+        });
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(PASSWORD_HASHING_BUSY_ERR);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static int calibrateStrength(PasswordProperties properties) {
+        int minStrength = properties.minStrength();
+        if (minStrength >= properties.maxStrength()) {
+            return minStrength;
+        }
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long startedAt = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - startedAt);
+        }
+        // Every strength step doubles the BCrypt cost
+        double budget = (double) properties.targetLatency().toNanos() / Math.max(fastest, 1);
+        int extraSteps = budget < 1 ? 0 : (int) Math.floor(Math.log(budget) / Math.log(2));
+        log.info("BCrypt strength {} takes {} µs", minStrength, TimeUnit.NANOSECONDS.toMicros(fastest));
+        return Math.min(minStrength + extraSteps, properties.maxStrength());
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(EXECUTOR_NAME + ".duration")
+                .description("Time spent computing a BCrypt hash")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
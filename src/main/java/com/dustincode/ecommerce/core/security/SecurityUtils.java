@@ -7,7 +7,6 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -15,30 +14,38 @@ import java.util.UUID;
 public final class SecurityUtils {
 
     private static final GoogleAuthenticator GOOGLE_AUTHENTICATOR = new GoogleAuthenticator();
-    private static final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     private SecurityUtils() {}
 
     public static Optional<UserContext> getUserContext() {
-        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
-                .map(Authentication::getCredentials)
-                .map(UserContext.class::cast);
+        return Optional.ofNullable(currentUserContext());
     }
 
     public static Long getUserId() {
-        return getUserContext().map(UserContext::userId).orElse(null);
+        UserContext userContext = currentUserContext();
+        return userContext == null ? null : userContext.userId();
     }
 
     public static String getAccessTokenId() {
-        return getUserContext().map(UserContext::accessTokenId).orElse(null);
+        UserContext userContext = currentUserContext();
+        return userContext == null ? null : userContext.accessTokenId();
     }
 
     public static String getRefreshTokenId() {
-        return getUserContext().map(UserContext::refreshTokenId).orElse(null);
+        UserContext userContext = currentUserContext();
+        return userContext == null ? null : userContext.refreshTokenId();
     }
 
     public static String getEmail() {
-        return getUserContext().map(UserContext::email).orElse(null);
+        UserContext userContext = currentUserContext();
+        return userContext == null ? null : userContext.email();
+    }
+
+    private static UserContext currentUserContext() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication instanceof UserAuthentication userAuthentication
+                ? userAuthentication.getUserContext()
+                : null;
     }
 
     public static String generateRandomCode() {
@@ -54,16 +61,4 @@ public final class SecurityUtils {
         String qrUrl = GoogleAuthenticatorQRGenerator.getOtpAuthURL(issuer, email, credentials);
         return Pair.of(credentials.getKey(), qrUrl);
     }
-
-    public static BCryptPasswordEncoder getEncoder() {
-        return passwordEncoder;
-    }
-
-    public static String encodePassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
-    }
-
-    public static boolean matchPassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
-    }
 }
@@ -0,0 +1,11 @@
+package com.dustincode.ecommerce.core.security;
+
+/**
+ * How {@code AuthenticationFilter} decides whether an access token is still backed by a live session.
+ */
+public enum SessionMode {
+    /** Look the token id up in t_user_sessions (through the local session cache) */
+    STATEFUL,
+    /** Compare the token's sessionVersion claim with the user's current version, never touching t_user_sessions */
+    STATELESS
+}
@@ -0,0 +1,69 @@
+package com.dustincode.ecommerce.core.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Authentication of a request carrying a valid access token. It holds the {@link UserContext} and the authorities
+ * derived once per verified token, so authenticating a request allocates this object only.
+ */
+public final class UserAuthentication implements Authentication {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final UserContext userContext;
+    private final List<GrantedAuthority> authorities;
+    private boolean authenticated = true;
+
+    public UserAuthentication(UserContext userContext, List<GrantedAuthority> authorities) {
+        this.userContext = Objects.requireNonNull(userContext);
+        this.authorities = Objects.requireNonNull(authorities);
+    }
+
+    public UserContext getUserContext() {
+        return userContext;
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public UserContext getCredentials() {
+        return userContext;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Long getPrincipal() {
+        return userContext.userId();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("A user authentication can only be created authenticated");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userContext.userId());
+    }
+}
@@ -1,9 +1,11 @@
 package com.dustincode.ecommerce.core.security;
 
+import java.io.Serializable;
+
 public record UserContext(
         Long userId,
         String email,
         String accessTokenId,
         String refreshTokenId
-) {
+) implements Serializable {
 }
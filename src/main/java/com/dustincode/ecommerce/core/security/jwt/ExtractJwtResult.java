@@ -1,14 +1,31 @@
 package com.dustincode.ecommerce.core.security.jwt;
 
+import com.dustincode.ecommerce.core.security.UserContext;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
 import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-public record ExtractJwtResult(CheckJwtResult status, Claims claims) {
+/**
+ * Result of verifying a token. The {@link UserContext} and the granted authorities are derived once here, a verified
+ * result is cached by {@link JwtProvider} and shared by every request carrying the same token.
+ */
+public record ExtractJwtResult(
+        CheckJwtResult status,
+        Claims claims,
+        UserContext userContext,
+        List<GrantedAuthority> grantedAuthorities
+) {
+
+    public ExtractJwtResult(CheckJwtResult status, Claims claims) {
+        this(status, claims, userContextOf(status, claims), grantedAuthoritiesOf(status, claims));
+    }
 
     public Set<String> getAuthorities() {
         if (status != CheckJwtResult.INVALID && claims.get("authorities") instanceof Collection<?> authorities) {
@@ -25,6 +42,15 @@ public record ExtractJwtResult(CheckJwtResult status, Claims claims) {
         return isInvalid() ? null : claims.getSubject();
     }
 
+    public long getSessionVersion() {
+        if (isInvalid()) {
+            return 0L;
+        }
+        return Optional
+                .ofNullable(claims.get("sessionVersion", Long.class))
+                .orElse(0L);
+    }
+
     public String getRefreshTokenId() {
         return isInvalid() ? null : claims.get("refreshTokenId", String.class);
     }
@@ -53,4 +79,23 @@ public record ExtractJwtResult(CheckJwtResult status, Claims claims) {
     public boolean isNotInvalid() {
         return !isInvalid();
     }
+
+    private static UserContext userContextOf(CheckJwtResult status, Claims claims) {
+        if (CheckJwtResult.INVALID == status) {
+            return null;
+        }
+        return new UserContext(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.getId(),
+                claims.get("refreshTokenId", String.class)
+        );
+    }
+
+    private static List<GrantedAuthority> grantedAuthoritiesOf(CheckJwtResult status, Claims claims) {
+        if (status != CheckJwtResult.INVALID && claims.get("authorities") instanceof Collection<?> authorities) {
+            return Role.authoritiesOf(authorities);
+        }
+        return List.of();
+    }
 }
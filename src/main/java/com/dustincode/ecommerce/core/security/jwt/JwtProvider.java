@@ -1,34 +1,69 @@
 package com.dustincode.ecommerce.core.security.jwt;
 
 import com.dustincode.ecommerce.core.security.SecurityUtils;
+import com.dustincode.ecommerce.user.dto.UserSessionRefresh;
 import com.dustincode.ecommerce.user.entity.User;
 import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class JwtProvider {
-    private static final long ACCESS_TOKEN_IN_MINUTES = 60;
-    private static final long REFRESH_TOKEN_IN_HOURS = 24;
+    public static final long ACCESS_TOKEN_IN_MINUTES = 60;
+    public static final long REFRESH_TOKEN_IN_HOURS = 24;
+
+    private static final String TOKEN_DIGEST_ALGORITHM = "SHA-256";
 
     private final Key signingKey;
+    private final JwtParser jwtParser;
+
+    /** Already verified tokens keyed by their digest, each entry lives until the token's {@code exp} */
+    private final Cache<ByteBuffer, ExtractJwtResult> verifiedTokens;
 
-    public JwtProvider(@Value("${application.security.jwt.secret}") String secret) {
+    @Autowired
+    public JwtProvider(
+            @Value("${application.security.jwt.secret}") String secret,
+            @Value("${application.security.jwt.verified-token-cache-size}") long verifiedTokenCacheSize
+    ) {
+        this(secret, verifiedTokenCacheSize, Ticker.systemTicker());
+    }
+
+    JwtProvider(String secret, long verifiedTokenCacheSize, Ticker ticker) {
         this.signingKey = getSignInKey(secret);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new VerifiedTokenExpiry())
+                .ticker(ticker)
+                .build();
     }
 
     public GenerateJwtResult generateTokens(User user) {
@@ -62,6 +97,7 @@ public class JwtProvider {
                 .claim("refreshId", refreshTokenId)
                 .claim("authorities", authorities)
                 .claim("mfa", hasMFA)
+                .claim("sessionVersion", user.getSessionVersion())
                 .setIssuedAt(issueAt)
                 .setExpiration(expireTime)
                 .signWith(signingKey, SignatureAlgorithm.HS256)
@@ -76,12 +112,12 @@ public class JwtProvider {
         );
     }
 
-    public GenerateJwtResult refreshAccessToken(String refreshToken, User user) {
+    public GenerateJwtResult refreshAccessToken(String refreshToken, UserSessionRefresh session) {
         String accessTokenId = SecurityUtils.generateRandomCode();
         Date issueAt = new Date(System.currentTimeMillis());
 
-        boolean hasMFA = MFAType.GOOGLE == user.getMfaType();
-        Set<String> authorities = Set.of(user.getRole().toString());
+        boolean hasMFA = MFAType.GOOGLE == session.mfaType();
+        Set<String> authorities = Set.of(session.role().toString());
 
         ExtractJwtResult refreshTokenExtracted = extractClaims(refreshToken);
         String refreshTokenId = refreshTokenExtracted.getTokenId();
@@ -90,11 +126,12 @@ public class JwtProvider {
 
         String accessToken = Jwts.builder()
                 .setId(accessTokenId)
-                .claim("userId", user.getId())
-                .setSubject(user.getEmail())
+                .claim("userId", session.userId())
+                .setSubject(session.email())
                 .claim("refreshId", refreshTokenId)
                 .claim("authorities", authorities)
                 .claim("mfa", hasMFA)
+                .claim("sessionVersion", session.sessionVersion())
                 .setIssuedAt(issueAt)
                 .setExpiration(expireTime)
                 .signWith(signingKey, SignatureAlgorithm.HS256)
@@ -110,6 +147,31 @@ public class JwtProvider {
     }
 
     public ExtractJwtResult extractClaims(String token) {
+        if (token == null) {
+            return new ExtractJwtResult(CheckJwtResult.INVALID, null);
+        }
+
+        ByteBuffer digest = digest(token);
+        ExtractJwtResult verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null) {
+            return verified;
+        }
+
+        ExtractJwtResult result = parseClaims(token);
+        if (CheckJwtResult.VALID == result.status() && result.claims().getExpiration() != null) {
+            verifiedTokens.put(digest, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return whether the token is served from the verified tokens without being parsed.
+     */
+    boolean isCached(String token) {
+        return verifiedTokens.getIfPresent(digest(token)) != null;
+    }
+
+    private ExtractJwtResult parseClaims(String token) {
         try {
             return new ExtractJwtResult(CheckJwtResult.VALID, extractAllClaims(token));
         } catch (ExpiredJwtException exception) {
@@ -120,15 +182,45 @@ public class JwtProvider {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    /** A new digest per call, a thread local one would be a new digest and map entry per virtual thread anyway */
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(newTokenDigest().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newTokenDigest() {
+        try {
+            return MessageDigest.getInstance(TOKEN_DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
     private Key getSignInKey(String secret) {
         final byte[] keyBytes = Decoders.BASE64.decode(secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    private static class VerifiedTokenExpiry implements Expiry<ByteBuffer, ExtractJwtResult> {
+
+        @Override
+        public long expireAfterCreate(@Nonnull ByteBuffer key, @Nonnull ExtractJwtResult value, long currentTime) {
+            long remainingMillis = value.claims().getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(@Nonnull ByteBuffer key, @Nonnull ExtractJwtResult value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@Nonnull ByteBuffer key, @Nonnull ExtractJwtResult value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.dustincode.ecommerce.core.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter for {@link CharSequence} keys, sized from the expected number of insertions and the
+ * acceptable false-positive probability.
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long insertions = Math.max(expectedInsertions, 1);
+        long bits = (long) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        this.words = new AtomicLongArray(Math.toIntExact(Math.max((bits + 63) >>> 6, 1)));
+        this.bitSize = (long) words.length() << 6;
+        this.hashFunctions = Math.max((int) Math.round((double) bitSize / insertions * LN2), 1);
+    }
+
+    public void put(CharSequence key) {
+        long hash1 = HashUtils.fnv1a64(key);
+        // Forced odd so consecutive probes never collapse onto one bit
+        long hash2 = HashUtils.mix64(hash1) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitSize);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long hash1 = HashUtils.fnv1a64(key);
+        // Forced odd so consecutive probes never collapse onto one bit
+        long hash2 = HashUtils.mix64(hash1) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitSize);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public long sizeInBytes() {
+        return bitSize >>> 3;
+    }
+
+    /**
+     * @return the false-positive probability for the given number of insertions
+     */
+    public double falsePositiveProbability(long insertions) {
+        return Math.pow(1 - Math.exp(-hashFunctions * (double) insertions / bitSize), hashFunctions);
+    }
+}
@@ -0,0 +1,28 @@
+package com.dustincode.ecommerce.core.utils;
+
+public final class HashUtils {
+
+    private HashUtils() {}
+
+    /**
+     * @return the 64-bit FNV-1a hash of the given characters
+     */
+    public static long fnv1a64(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * @return the splitmix64 finalizer of the given value, spreading every input bit over the whole result
+     */
+    public static long mix64(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dustincode.ecommerce.core.utils;
+
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.core.utils.query.QueryPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.dustincode.ecommerce.core.constant.HeaderConstants.LINK_FORMAT_HEADER;
+import static com.dustincode.ecommerce.core.constant.HeaderConstants.LINK_HEADER;
+import static com.dustincode.ecommerce.core.constant.HeaderConstants.X_PAGINATION_MODE_HEADER;
+import static com.dustincode.ecommerce.core.constant.HeaderConstants.X_TOTAL_COUNT_HEADER;
+
+public final class PaginationUtils {
+
+    public static final String CURSOR_PARAM = "cursor";
+    public static final String SIZE_PARAM = "size";
+
+    private PaginationUtils() {}
+
+    /**
+     * Builds the {@code Link} header of a keyset page: {@code first} always, {@code next} when there is a next cursor.
+     * There is no {@code prev} or {@code last}, a cursor only points forward. {@code X-Pagination-Mode} tells how the
+     * {@code X-Total-Count} was counted, there is no total in {@link PaginationMode#SLICE} mode.
+     *
+     * @param uriBuilder the current request, with its filters
+     * @param nextCursor the cursor of the next page, {@code null} on the last page
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(
+            UriComponentsBuilder uriBuilder,
+            String nextCursor,
+            int size,
+            QueryPage<?> page
+    ) {
+        List<String> links = new ArrayList<>(2);
+        if (nextCursor != null) {
+            links.add(link(uriBuilder, nextCursor, size, "next"));
+        }
+        links.add(link(uriBuilder, null, size, "first"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(X_PAGINATION_MODE_HEADER, page.mode().name().toLowerCase(Locale.ROOT));
+        if (page.totalCount() != null) {
+            headers.add(X_TOTAL_COUNT_HEADER, Long.toString(page.totalCount()));
+        }
+        headers.add(LINK_HEADER, String.join(",", links));
+        return headers;
+    }
+
+    private static String link(UriComponentsBuilder uriBuilder, String cursor, int size, String relation) {
+        UriComponentsBuilder builder = uriBuilder.cloneBuilder().replaceQueryParam(SIZE_PARAM, size);
+        if (cursor == null) {
+            builder.replaceQueryParam(CURSOR_PARAM);
+        } else {
+            builder.replaceQueryParam(CURSOR_PARAM, cursor);
+        }
+        return MessageFormat.format(LINK_FORMAT_HEADER, builder.build().toUriString(), relation);
+    }
+}
@@ -0,0 +1,57 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@value #MATCH_AGAINST}{@code (column, query)} in JPQL, rendered as MySQL's and MariaDB's
+ * {@code match(column) against(query in boolean mode)}. Only they have FULLTEXT indexes, so on any other database the
+ * function does not exist and {@link QueryService} keeps matching {@code contains} with a LIKE.
+ * <p>
+ * Loaded by Hibernate from {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class FullTextFunctions implements FunctionContributor {
+
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        if (!(functionContributions.getDialect() instanceof MySQLDialect)) {
+            return;
+        }
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(MATCH_AGAINST, "match(?1) against(?2 in boolean mode)")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE))
+                .register();
+    }
+
+    /**
+     * @return whether the database of the entity manager has {@value #MATCH_AGAINST}.
+     */
+    public static boolean isRegistered(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getQueryEngine()
+                .getSqmFunctionRegistry()
+                .findFunctionDescriptor(MATCH_AGAINST) != null;
+    }
+
+    /**
+     * @return the parser of the FULLTEXT indexes on the database of the entity manager, n-gram on MySQL, words on
+     * MariaDB which has no n-gram parser.
+     */
+    public static FullTextParser parserOf(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof MariaDBDialect ? FullTextParser.WORDS : FullTextParser.NGRAM;
+    }
+}
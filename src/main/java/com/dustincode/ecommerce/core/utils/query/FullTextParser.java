@@ -0,0 +1,61 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The parser a FULLTEXT index was built with, which decides the boolean mode query finding every row a
+ * {@code contains} of a value would find.
+ */
+public enum FullTextParser {
+
+    /** MySQL's n-gram parser, the value is searched as one phrase of consecutive n-grams, found inside a word too */
+    NGRAM {
+        @Override
+        public String toBooleanModeQuery(String value) {
+            if (value.length() < NGRAM_TOKEN_SIZE || PHRASE_BREAKS.matcher(value).find()) {
+                return "";
+            }
+            return "\"" + value + "\"";
+        }
+    },
+
+    /**
+     * The word parser, the only one MariaDB has. The value may start inside a word, so its first word is left out, the
+     * words after it are whole words but the last, which is a prefix, e.g. {@code +doe +gmail*} for
+     * {@code john.doe@gmail}.
+     */
+    WORDS {
+        @Override
+        public String toBooleanModeQuery(String value) {
+            if (!WORD_VALUE.matcher(value).matches()) {
+                return "";
+            }
+            String[] words = WORD_DELIMITERS.split(value, -1);
+            return IntStream.range(1, words.length)
+                    .filter(i -> words[i].length() >= MIN_TOKEN_SIZE && words[i].length() <= MAX_TOKEN_SIZE)
+                    .mapToObj(i -> "+" + words[i] + (i == words.length - 1 ? "*" : ""))
+                    .collect(Collectors.joining(" "));
+        }
+    };
+
+    /** MySQL's {@code ngram_token_size}, set in docker-compose, shorter values are not in the index */
+    public static final int NGRAM_TOKEN_SIZE = 2;
+    /** InnoDB's default {@code innodb_ft_min_token_size}, shorter words are not in the index */
+    public static final int MIN_TOKEN_SIZE = 3;
+    /** InnoDB's default {@code innodb_ft_max_token_size}, longer words are not in the index */
+    public static final int MAX_TOKEN_SIZE = 84;
+
+    /** What the n-gram parser drops from a phrase, or ends it */
+    private static final Pattern PHRASE_BREAKS = Pattern.compile("[\\s\"]");
+    /** Printable ASCII, where InnoDB's word characters are the same as ours, without the apostrophe it keeps in words */
+    private static final Pattern WORD_VALUE = Pattern.compile("[ -~&&[^']]*");
+    private static final Pattern WORD_DELIMITERS = Pattern.compile("[^A-Za-z0-9_]+");
+
+    /**
+     * @return a boolean mode query matching at least every row containing the value, or an empty string when the index
+     * cannot narrow the search down.
+     */
+    public abstract String toBooleanModeQuery(String value);
+}
@@ -0,0 +1,185 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PaginationProperties;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Totals of the list endpoints for each {@link PaginationMode}.
+ * <p>
+ * An estimate without filters is the row count InnoDB keeps in its table statistics, read from
+ * {@code information_schema} without touching the table, read again once per {@code estimateRefresh}. With filters,
+ * or where the statistics cannot be read, it is a real count cached per query shape and values. The first request of
+ * a key starts the count on the task executor and gets no total, later ones get the cached total while it is
+ * refreshed in the background.
+ * <p>
+ * Every new filter value is a new key, so at most {@code estimateConcurrency} counts run at once. A request arriving
+ * while they all run gets no total and starts nothing, a refresh keeps the previous total until it expires with
+ * {@code estimateExpiry}.
+ */
+@Slf4j
+@Component
+public class PageCounter {
+
+    public static final String CACHE_NAME = "query.estimated-counts";
+
+    private static final String TABLE_ROWS_QUERY =
+            "select table_rows from information_schema.tables where table_schema = database() and table_name = ?";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncLoadingCache<CountKey, Long> estimates;
+    private final LoadingCache<String, Optional<Long>> tableRows;
+    private final Semaphore runningCounts;
+    private final Counter skippedCounts;
+
+    @Autowired
+    public PageCounter(
+            EntityManager entityManager,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this(entityManager, jdbcTemplate, transactionManager, executor, applicationProperties, meterRegistry, Ticker.systemTicker());
+    }
+
+    PageCounter(
+            EntityManager entityManager,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            Executor executor,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry,
+            Ticker ticker
+    ) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        PaginationProperties properties = applicationProperties.getPagination();
+        this.runningCounts = new Semaphore(properties.estimateConcurrency());
+        this.estimates = Caffeine.newBuilder()
+                .maximumSize(properties.estimateCacheSize())
+                .refreshAfterWrite(properties.estimateRefresh())
+                .expireAfterWrite(properties.estimateExpiry())
+                .executor(executor)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync(new CountLoader());
+        this.tableRows = Caffeine.newBuilder()
+                .expireAfterWrite(properties.estimateRefresh())
+                .ticker(ticker)
+                .build(this::readTableRows);
+        CaffeineCacheMetrics.monitor(meterRegistry, estimates, CACHE_NAME);
+        this.skippedCounts = Counter.builder(CACHE_NAME + ".skipped")
+                .description("Estimated counts not started because the maximum of concurrent counts was running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Must be called before conditions that only select the page, such as a keyset, are added to the shape.
+     *
+     * @param countSelect the select and from clauses of the count, e.g. {@code select count(u) from User u}.
+     * @param table       the table of the root entity, for the statistics.
+     * @return the total of the mode, empty for {@link PaginationMode#SLICE} and while an estimate is not available.
+     */
+    public Optional<Long> count(PaginationMode mode, QueryShape shape, String countSelect, String table) {
+        CountKey key = new CountKey(shape.toJpql(countSelect, null), shape.getValues());
+        return switch (mode) {
+            case SLICE -> Optional.empty();
+            case EXACT -> Optional.of(count(key));
+            case ESTIMATED -> (shape.hasConditions() ? Optional.<Long>empty() : tableRows.get(table)).or(() -> estimate(key));
+        };
+    }
+
+    private Optional<Long> estimate(CountKey key) {
+        CompletableFuture<Long> estimate = estimates.get(key);
+        return estimate.isDone() && !estimate.isCompletedExceptionally()
+                ? Optional.ofNullable(estimate.join())
+                : Optional.empty();
+    }
+
+    private Optional<Long> readTableRows(String table) {
+        try {
+            return Optional.ofNullable(jdbcTemplate.queryForObject(TABLE_ROWS_QUERY, Long.class, table));
+        } catch (DataAccessException e) {
+            // Not MariaDB or MySQL
+            log.debug("No table statistics for {}: {}", table, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private long count(CountKey key) {
+        TypedQuery<Long> query = entityManager.createQuery(key.jpql(), Long.class);
+        for (int i = 0; i < key.values().size(); i++) {
+            query.setParameter(i + 1, key.values().get(i));
+        }
+        return query.getSingleResult();
+    }
+
+    private record CountKey(String jpql, List<Object> values) {}
+
+    /**
+     * Counts on the executor while a permit is free. Without one, a load completing with null leaves the key absent, and
+     * a reload is cancelled, which keeps the previous total with the time it was counted so it still expires.
+     */
+    private final class CountLoader implements AsyncCacheLoader<CountKey, Long> {
+
+        @Override
+        public CompletableFuture<Long> asyncLoad(CountKey key, Executor executor) {
+            return countAsync(key, executor).orElseGet(() -> CompletableFuture.completedFuture(null));
+        }
+
+        @Override
+        public CompletableFuture<Long> asyncReload(CountKey key, Long oldValue, Executor executor) {
+            return countAsync(key, executor).orElseGet(() -> {
+                CompletableFuture<Long> skipped = new CompletableFuture<>();
+                skipped.cancel(false);
+                return skipped;
+            });
+        }
+
+        private Optional<CompletableFuture<Long>> countAsync(CountKey key, Executor executor) {
+            if (!runningCounts.tryAcquire()) {
+                skippedCounts.increment();
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(CompletableFuture
+                        .supplyAsync(() -> readOnlyTransaction.execute(status -> count(key)), executor)
+                        .whenComplete((count, e) -> runningCounts.release()));
+            } catch (RuntimeException e) {
+                runningCounts.release();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+/**
+ * How a list endpoint tells its clients the number of rows, chosen per endpoint by the cost of a count on its table.
+ */
+public enum PaginationMode {
+
+    /** No total, the page reads one more row than asked to tell whether there is a next page */
+    SLICE,
+
+    /** An approximate total from the table statistics or from a count cached and refreshed in the background */
+    ESTIMATED,
+
+    /** A {@code count(*)} with the filters of the page, run for every page */
+    EXACT
+}
@@ -0,0 +1,20 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+import org.springframework.data.domain.Window;
+
+import java.util.Optional;
+
+/**
+ * A page of rows with the total the endpoint could afford.
+ *
+ * @param mode       the mode actually served, {@link PaginationMode#SLICE} when an estimate is not available yet.
+ * @param totalCount the total of the mode, {@code null} for {@link PaginationMode#SLICE}.
+ */
+public record QueryPage<T>(Window<T> window, PaginationMode mode, Long totalCount) {
+
+    public static <T> QueryPage<T> of(Window<T> window, PaginationMode mode, Optional<Long> totalCount) {
+        return totalCount
+                .map(total -> new QueryPage<>(window, mode, total))
+                .orElseGet(() -> new QueryPage<>(window, PaginationMode.SLICE, null));
+    }
+}
@@ -1,5 +1,6 @@
 package com.dustincode.ecommerce.core.utils.query;
 
+import com.dustincode.ecommerce.core.exceptions.BadRequestException;
 import com.dustincode.ecommerce.core.utils.query.filter.Filter;
 import com.dustincode.ecommerce.core.utils.query.filter.RangeFilter;
 import com.dustincode.ecommerce.core.utils.query.filter.StringFilter;
@@ -13,9 +14,14 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
+import static com.dustincode.ecommerce.core.constant.MessageConstant.IN_FILTER_TOO_LONG_ERR;
+
 /**
  * Base service for constructing and executing complex queries.
  *
@@ -24,6 +30,22 @@ import java.util.function.Function;
 @Transactional(readOnly = true)
 public abstract class QueryService<E> {
 
+    /** Elements of an {@code in} or {@code notIn} filter a compiled query accepts */
+    public static final int MAX_IN_SIZE = 64;
+
+    private final Map<SingularAttribute<? super E, String>, FullTextParser> fullTextIndexes = new HashMap<>();
+
+    /**
+     * Marks a {@link String} field whose column has a FULLTEXT index, {@code contains} on it is then compiled to a
+     * {@link FullTextFunctions#MATCH_AGAINST} on the index. Only call it when {@link FullTextFunctions#isRegistered}.
+     *
+     * @param field  the JPA static metamodel representing the field.
+     * @param parser the parser the index was built with.
+     */
+    protected void registerFullTextIndex(SingularAttribute<? super E, String> field, FullTextParser parser) {
+        fullTextIndexes.put(field, parser);
+    }
+
     /**
      * Helper function to return a specification for filtering on a single field, where equality, and null/non-null
      * conditions are supported.
@@ -542,6 +564,166 @@ public abstract class QueryService<E> {
         return (root, query, builder) -> builder.lessThan(metaclassFunction.apply(root), value);
     }
 
+    /**
+     * Helper function to add a filter on a single field to a {@link QueryShape}, where equality, and null/non-null
+     * conditions are supported. Same conditions as {@link #buildSpecification(Filter, SingularAttribute)}, but only
+     * the operators go into the JPQL, the values are bound.
+     *
+     * @param shape  the shape of the query being built.
+     * @param filter the individual attribute filter coming from the frontend.
+     * @param field  the JPA static metamodel representing the field.
+     * @param <X>    The type of the attribute which is filtered.
+     */
+    protected <X> void compileFilter(QueryShape shape, Filter<X> filter, SingularAttribute<? super E, X> field) {
+        String path = shape.path(field);
+        if (filter.getEquals() != null) {
+            shape.where(path + " = ?", filter.getEquals());
+        } else if (filter.getIn() != null) {
+            shape.where(path + " in (?)", checkInSize(filter.getIn()));
+        } else if (filter.getNotIn() != null) {
+            shape.where(path + " not in (?)", checkInSize(filter.getNotIn()));
+        } else if (filter.getNotEquals() != null) {
+            shape.where(path + " <> ?", filter.getNotEquals());
+        } else if (filter.getSpecified() != null) {
+            compileSpecified(shape, path, filter.getSpecified());
+        }
+    }
+
+    /**
+     * Helper function to add a filter on a {@link String} field to a {@link QueryShape}, where equality, containment,
+     * and null/non-null conditions are supported. Same conditions as
+     * {@link #buildStringSpecification(StringFilter, SingularAttribute)}, and {@code contains} goes through the FULLTEXT
+     * index when the field is registered with {@link #registerFullTextIndex}.
+     *
+     * @param shape  the shape of the query being built.
+     * @param filter the individual attribute filter coming from the frontend.
+     * @param field  the JPA static metamodel representing the field.
+     */
+    protected void compileStringFilter(QueryShape shape, StringFilter filter, SingularAttribute<? super E, String> field) {
+        String path = shape.path(field);
+        if (filter.getEquals() != null) {
+            shape.where(path + " = ?", filter.getEquals());
+        } else if (filter.getIn() != null) {
+            shape.where(path + " in (?)", checkInSize(filter.getIn()));
+        } else if (filter.getNotIn() != null) {
+            shape.where(path + " not in (?)", checkInSize(filter.getNotIn()));
+        } else if (filter.getContains() != null) {
+            compileContains(shape, path, field, filter.getContains());
+        } else if (filter.getDoesNotContain() != null) {
+            shape.where("upper(" + path + ") not like ?", wrapLikeQuery(filter.getDoesNotContain()));
+        } else if (filter.getNotEquals() != null) {
+            shape.where(path + " <> ?", filter.getNotEquals());
+        } else if (filter.getSpecified() != null) {
+            compileSpecified(shape, path, filter.getSpecified());
+        }
+    }
+
+    /**
+     * Helper function to add a filter on a single {@link Comparable} to a {@link QueryShape}, where equality, less
+     * than, greater than and less-than-or-equal-to and greater-than-or-equal-to and null/non-null conditions are
+     * supported. Same conditions as {@link #buildRangeSpecification(RangeFilter, SingularAttribute)}.
+     *
+     * @param shape  the shape of the query being built.
+     * @param filter the individual attribute filter coming from the frontend.
+     * @param field  the JPA static metamodel representing the field.
+     * @param <X>    The type of the attribute which is filtered.
+     */
+    protected <X extends Comparable<? super X>> void compileRangeFilter(
+            QueryShape shape,
+            RangeFilter<X> filter,
+            SingularAttribute<? super E, X> field
+    ) {
+        String path = shape.path(field);
+        if (filter.getEquals() != null) {
+            shape.where(path + " = ?", filter.getEquals());
+            return;
+        } else if (filter.getIn() != null) {
+            shape.where(path + " in (?)", checkInSize(filter.getIn()));
+            return;
+        }
+
+        if (filter.getSpecified() != null) {
+            compileSpecified(shape, path, filter.getSpecified());
+        }
+        if (filter.getNotEquals() != null) {
+            shape.where(path + " <> ?", filter.getNotEquals());
+        }
+        if (filter.getNotIn() != null) {
+            shape.where(path + " not in (?)", checkInSize(filter.getNotIn()));
+        }
+        if (filter.getGreaterThan() != null) {
+            shape.where(path + " > ?", filter.getGreaterThan());
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            shape.where(path + " >= ?", filter.getGreaterThanOrEqual());
+        }
+        if (filter.getLessThan() != null) {
+            shape.where(path + " < ?", filter.getLessThan());
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            shape.where(path + " <= ?", filter.getLessThanOrEqual());
+        }
+    }
+
+    /**
+     * Helper function to add a condition that seeks past a row in descending {@code (first, second)} order, where
+     * {@code second} is unique. It is written as {@code first <= ? and (first < ? or second < ?)} rather than as a row
+     * value comparison, so that the database can range scan an index on {@code (first, second)}.
+     *
+     * @param shape       the shape of the query being built.
+     * @param first       the JPA static metamodel of the leading sort key.
+     * @param firstValue  the leading sort key of the last row already read.
+     * @param second      the JPA static metamodel of the unique sort key.
+     * @param secondValue the unique sort key of the last row already read.
+     * @param <X>         The type of the leading sort key.
+     * @param <Y>         The type of the unique sort key.
+     */
+    protected <X extends Comparable<? super X>, Y extends Comparable<? super Y>> void compileKeysetBefore(
+            QueryShape shape,
+            SingularAttribute<? super E, X> first,
+            X firstValue,
+            SingularAttribute<? super E, Y> second,
+            Y secondValue
+    ) {
+        String firstPath = shape.path(first);
+        shape.where(
+                firstPath + " <= ? and (" + firstPath + " < ? or " + shape.path(second) + " < ?)",
+                firstValue,
+                firstValue,
+                secondValue
+        );
+    }
+
+    /**
+     * A LIKE with a leading wildcard reads every row. On a field registered with {@link #registerFullTextIndex} the
+     * FULLTEXT index first finds every row that may contain the value, see {@link FullTextParser}, then the LIKE keeps
+     * those that really do, so the result is the same as the LIKE alone. When the index cannot narrow the search down,
+     * the LIKE is left alone.
+     */
+    private void compileContains(QueryShape shape, String path, SingularAttribute<? super E, String> field, String value) {
+        FullTextParser parser = fullTextIndexes.get(field);
+        String against = parser == null ? "" : parser.toBooleanModeQuery(value);
+        if (!against.isEmpty()) {
+            shape.where(FullTextFunctions.MATCH_AGAINST + "(" + path + ", ?) > 0", against);
+        }
+        shape.where("upper(" + path + ") like ?", wrapLikeQuery(value));
+    }
+
+    /**
+     * Each element is bound as its own parameter, padded to a power of two, see {@link QueryShape}, so a longer list
+     * could pass the driver's limit of parameters and every new size would be a new query plan.
+     */
+    private static <X> List<X> checkInSize(List<X> values) {
+        if (values.size() > MAX_IN_SIZE) {
+            throw new BadRequestException(IN_FILTER_TOO_LONG_ERR);
+        }
+        return values;
+    }
+
+    private static void compileSpecified(QueryShape shape, String path, boolean specified) {
+        shape.where(path + (specified ? " is not null" : " is null"));
+    }
+
     /**
      * <p>wrapLikeQuery.</p>
      *
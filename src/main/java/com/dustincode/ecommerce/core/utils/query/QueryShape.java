@@ -0,0 +1,124 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The conditions of one query as JPQL with positional parameters, and the values to bind to them. Two criteria that
+ * use the same filters with the same operators give the same JPQL whatever their values, so Hibernate parses and
+ * translates each shape once and then serves it from its query plan cache. A criteria query is translated again on
+ * every execution.
+ */
+public final class QueryShape {
+
+    private final String alias;
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    /**
+     * @param alias the alias of the root entity in the select clause.
+     */
+    public QueryShape(String alias) {
+        this.alias = alias;
+    }
+
+    /**
+     * @return the attribute of the root entity as a JPQL path, e.g. {@code u.email}.
+     */
+    public String path(Attribute<?, ?> attribute) {
+        return alias + "." + attribute.getName();
+    }
+
+    /**
+     * Adds a condition without a value, e.g. {@code u.email is not null}.
+     */
+    public QueryShape where(String condition) {
+        conditions.add(condition);
+        return this;
+    }
+
+    /**
+     * Adds a condition with values, each {@code ?} of the condition is bound to the next value in order, e.g.
+     * {@code u.email = ?}.
+     * <p>
+     * A non-empty {@link Collection}, for {@code in (?)}, is bound as one parameter per element, padded to the next
+     * power of two with its last element, e.g. three roles give {@code u.role in (?1, ?2, ?3, ?4)}. Hibernate does not
+     * cache the plan of a query with a multi-valued parameter, with scalar ones lists of similar sizes share a plan.
+     */
+    public QueryShape where(String condition, Object... values) {
+        StringBuilder jpql = new StringBuilder(condition.length() + 4 * values.length);
+        int valueIndex = 0;
+        for (int i = 0; i < condition.length(); i++) {
+            char c = condition.charAt(i);
+            if (c == '?' && valueIndex < values.length) {
+                bind(jpql, values[valueIndex++]);
+            } else if (c == '?') {
+                throw new IllegalArgumentException("Not enough values for: " + condition);
+            } else {
+                jpql.append(c);
+            }
+        }
+        if (valueIndex < values.length) {
+            throw new IllegalArgumentException("Too many values for: " + condition);
+        }
+        conditions.add(jpql.toString());
+        return this;
+    }
+
+    /**
+     * @param select  the select and from clauses, e.g. {@code select u from User u}.
+     * @param orderBy the order by clause without the keywords, or {@code null}.
+     * @return the JPQL of this shape, without any value.
+     */
+    public String toJpql(String select, String orderBy) {
+        StringBuilder jpql = new StringBuilder(select);
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        if (orderBy != null) {
+            jpql.append(" order by ").append(orderBy);
+        }
+        return jpql.toString();
+    }
+
+    public boolean hasConditions() {
+        return !conditions.isEmpty();
+    }
+
+    public List<Object> getValues() {
+        return List.copyOf(values);
+    }
+
+    private void bind(StringBuilder jpql, Object value) {
+        if (!(value instanceof Collection<?> elements) || elements.isEmpty()) {
+            values.add(value);
+            jpql.append('?').append(values.size());
+            return;
+        }
+        int padded = elements.size() == 1 ? 1 : Integer.highestOneBit(elements.size() - 1) << 1;
+        Object last = null;
+        Iterator<?> iterator = elements.iterator();
+        for (int i = 0; i < padded; i++) {
+            last = iterator.hasNext() ? iterator.next() : last;
+            values.add(last);
+            jpql.append(i == 0 ? "" : ", ").append('?').append(values.size());
+        }
+    }
+
+    /**
+     * @return a query of this shape with the values bound.
+     */
+    public <T> TypedQuery<T> createQuery(EntityManager entityManager, String select, String orderBy, Class<T> resultType) {
+        TypedQuery<T> query = entityManager.createQuery(toJpql(select, orderBy), resultType);
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(i + 1, values.get(i));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,191 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.LoginThrottleProperties;
+import com.dustincode.ecommerce.core.utils.HashUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets limiting login attempts per identifier (email or phone) and per client IP, checked before the user
+ * lookup and the BCrypt verification.
+ * <p>
+ * Every bucket is a single {@link AtomicLong} packing the token count and the time of the last refill, updated with
+ * compare-and-set only. Keys are 64-bit hashes of the scope and value, and the number of buckets is bounded by
+ * {@code maximumKeys}. A bucket idle long enough to be full again is evicted since a new one behaves the same.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    public static final String CACHE_NAME = "user.login-attempts";
+
+    private static final int TOKEN_BITS = 16;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    public enum Scope {
+        IDENTIFIER,
+        IP
+    }
+
+    private final LoginThrottleProperties properties;
+    private final long refillIntervalMillis;
+    private final Clock clock = Clock.systemUTC();
+    private final Cache<Long, Bucket> buckets;
+    private final Counter identifierRejections;
+    private final Counter ipRejections;
+
+    public LoginAttemptLimiter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getSecurity().loginThrottle();
+        this.refillIntervalMillis = properties.refillInterval().toMillis();
+        int largestCapacity = Math.max(properties.identifierCapacity(), properties.ipCapacity());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maximumKeys())
+                .expireAfterAccess(Duration.ofMillis(refillIntervalMillis * largestCapacity))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, CACHE_NAME);
+        this.identifierRejections = rejectionCounter(meterRegistry, Scope.IDENTIFIER);
+        this.ipRejections = rejectionCounter(meterRegistry, Scope.IP);
+    }
+
+    public long key(Scope scope, String value) {
+        String normalized = Objects.toString(value, "").trim().toLowerCase(Locale.ROOT);
+        return HashUtils.mix64(HashUtils.fnv1a64(scope.name() + ':' + normalized));
+    }
+
+    /**
+     * Takes one attempt from the bucket of the key.
+     *
+     * @return false when the bucket is empty
+     */
+    public boolean tryAcquire(Scope scope, long key) {
+        int capacity = capacity(scope);
+        AtomicLong state = bucket(key, capacity).state;
+        long now = clock.millis();
+        while (true) {
+            long current = state.get();
+            long refilled = refill(current, capacity, now);
+            long tokens = refilled & TOKEN_MASK;
+            if (tokens == 0) {
+                (scope == Scope.IP ? ipRejections : identifierRejections).increment();
+                return false;
+            }
+            if (state.compareAndSet(current, refilled - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back an attempt taken by {@link #tryAcquire(Scope, long)}.
+     */
+    public void release(Scope scope, long key) {
+        int capacity = capacity(scope);
+        Bucket bucket = buckets.getIfPresent(key);
+        if (Objects.isNull(bucket)) {
+            return;
+        }
+        long now = clock.millis();
+        bucket.state.getAndUpdate(current -> {
+            long refilled = refill(current, capacity, now);
+            return (refilled & TOKEN_MASK) < capacity ? refilled + 1 : refilled;
+        });
+    }
+
+    public void reset(long key) {
+        buckets.invalidate(key);
+    }
+
+    public boolean isExhausted(Scope scope, long key) {
+        Bucket bucket = buckets.getIfPresent(key);
+        return Objects.nonNull(bucket) && (refill(bucket.state.get(), capacity(scope), clock.millis()) & TOKEN_MASK) == 0;
+    }
+
+    /**
+     * @return the keys that ran out of attempts since the previous call, with the time their next attempt is allowed
+     */
+    public Map<Long, Instant> drainLockouts() {
+        long now = clock.millis();
+        Map<Long, Instant> lockouts = new HashMap<>();
+        buckets.asMap().forEach((key, bucket) -> {
+            long current = bucket.state.get();
+            long blockedUntil = lastRefill(current) + refillIntervalMillis;
+            if ((current & TOKEN_MASK) == 0 && blockedUntil > now && blockedUntil != bucket.persistedBlockedUntil) {
+                bucket.persistedBlockedUntil = blockedUntil;
+                lockouts.put(key, Instant.ofEpochMilli(blockedUntil));
+            }
+        });
+        return lockouts;
+    }
+
+    /**
+     * Locks the key out until the given time, used to reload lockouts persisted before a restart.
+     */
+    public void restore(long key, Instant blockedUntil) {
+        long lastRefill = blockedUntil.toEpochMilli() - refillIntervalMillis;
+        Bucket bucket = new Bucket(pack(lastRefill, 0));
+        bucket.persistedBlockedUntil = blockedUntil.toEpochMilli();
+        buckets.put(key, bucket);
+    }
+
+    private Bucket bucket(long key, int capacity) {
+        return buckets.get(key, k -> new Bucket(pack(clock.millis(), capacity)));
+    }
+
+    private long refill(long state, int capacity, long now) {
+        long tokens = state & TOKEN_MASK;
+        long lastRefill = lastRefill(state);
+        if (tokens >= capacity) {
+            return state;
+        }
+        long refills = (now - lastRefill) / refillIntervalMillis;
+        if (refills <= 0) {
+            return state;
+        }
+        long refilledTokens = Math.min(capacity, tokens + refills);
+        return pack(refilledTokens == capacity ? now : lastRefill + refills * refillIntervalMillis, refilledTokens);
+    }
+
+    private int capacity(Scope scope) {
+        return scope == Scope.IP ? properties.ipCapacity() : properties.identifierCapacity();
+    }
+
+    private static long lastRefill(long state) {
+        return state >>> TOKEN_BITS;
+    }
+
+    private static long pack(long lastRefill, long tokens) {
+        return (lastRefill << TOKEN_BITS) | tokens;
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, Scope scope) {
+        return Counter.builder(CACHE_NAME + ".rejections")
+                .description("Login attempts rejected before the password was checked")
+                .tag("scope", scope.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong state;
+        private volatile long persistedBlockedUntil;
+
+        private Bucket(long state) {
+            this.state = new AtomicLong(state);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.RevocationProperties;
+import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
+import com.dustincode.ecommerce.core.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process set of revoked access token ids.
+ * <p>
+ * Revocations are kept in two generations, each one a Bloom filter backed by an exact set. A generation is retired
+ * after two access token lifetimes, once every token revoked in it has expired on its own. Lookups for tokens that
+ * were never revoked are answered by the Bloom filters alone, the exact sets only confirm Bloom filter hits so a
+ * false positive never rejects a live token.
+ * <p>
+ * The registry only knows about revocations made by this instance since it started. That is why a token it has not
+ * seen revoked is not accepted on its word alone in {@code STATEFUL} mode, see {@code AuthServiceImpl#validateSession}.
+ */
+@Slf4j
+@Component
+public class RevokedTokenRegistry {
+
+    private static final Duration GENERATION_LIFETIME = Duration.ofMinutes(JwtProvider.ACCESS_TOKEN_IN_MINUTES);
+    /** A ConcurrentHashMap node and its share of the table, with compressed references */
+    private static final int SET_ENTRY_BYTES = 40;
+    /** A String and the header of its byte array, the characters of an id are Latin-1, one byte each */
+    private static final int STRING_BYTES = 40;
+
+    private final RevocationProperties properties;
+    private final Clock clock;
+    private final Counter rejections;
+    private final Counter falsePositives;
+    /** A lock rather than a monitor so request threads waiting for the rotation never pin a virtual thread */
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    @Autowired
+    public RevokedTokenRegistry(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    RevokedTokenRegistry(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        this.properties = applicationProperties.getSecurity().session().revocation();
+        this.current = newGeneration();
+        this.previous = newGeneration();
+
+        this.rejections = Counter.builder("user.sessions.revocation.rejections")
+                .description("Requests rejected because their access token was revoked")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("user.sessions.revocation.bloom.false-positives")
+                .description("Bloom filter hits not confirmed by the exact set")
+                .register(meterRegistry);
+        Gauge.builder("user.sessions.revocation.size", this, RevokedTokenRegistry::size)
+                .description("Revoked access token ids currently tracked")
+                .register(meterRegistry);
+        Gauge.builder("user.sessions.revocation.bloom.bytes", this, RevokedTokenRegistry::bloomSizeInBytes)
+                .description("Memory used by the Bloom filters of all generations")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.sessions.revocation.bloom.bytes-per-million", this, RevokedTokenRegistry::bloomBytesPerMillion)
+                .description("Bloom filter memory per million revocations at the configured false-positive probability")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.sessions.revocation.exact.bytes", this, RevokedTokenRegistry::exactSizeInBytes)
+                .description("Estimated memory used by the exact sets of all generations")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.sessions.revocation.bytes-per-million", this, RevokedTokenRegistry::bytesPerMillion)
+                .description("Bloom filter and exact set memory per million revocations, at the average size of the ids tracked")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.sessions.revocation.bloom.fpp", this, RevokedTokenRegistry::falsePositiveProbability)
+                .description("Estimated false-positive probability of the current generation")
+                .register(meterRegistry);
+    }
+
+    public void revoke(String accessTokenId) {
+        if (Objects.isNull(accessTokenId)) {
+            return;
+        }
+        Generation generation = rotateIfNeeded();
+        if (generation.exact().add(accessTokenId)) {
+            generation.exactBytes().add(entrySizeInBytes(accessTokenId));
+        }
+        generation.bloom().put(accessTokenId);
+    }
+
+    public boolean isRevoked(String accessTokenId) {
+        if (Objects.isNull(accessTokenId)) {
+            return false;
+        }
+        rotateIfNeeded();
+        if (isRevoked(current, accessTokenId) || isRevoked(previous, accessTokenId)) {
+            rejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isRevoked(Generation generation, String accessTokenId) {
+        if (!generation.bloom().mightContain(accessTokenId)) {
+            return false;
+        }
+        if (generation.exact().contains(accessTokenId)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    private Generation rotateIfNeeded() {
+        Generation generation = current;
+        if (clock.millis() - generation.startedAt() < GENERATION_LIFETIME.toMillis()) {
+            return generation;
+        }
+        rotationLock.lock();
+        try {
+            if (current == generation) {
+                log.debug("Rotating revoked token generation, dropping {} revocations", previous.exact().size());
+                previous = current;
+                current = newGeneration();
+            }
+            return current;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private Generation newGeneration() {
+        return new Generation(
+                clock.millis(),
+                new BloomFilter(properties.expectedRevocations(), properties.falsePositiveProbability()),
+                ConcurrentHashMap.newKeySet(),
+                new LongAdder()
+        );
+    }
+
+    private double size() {
+        return current.exact().size() + previous.exact().size();
+    }
+
+    private double bloomSizeInBytes() {
+        return current.bloom().sizeInBytes() + previous.bloom().sizeInBytes();
+    }
+
+    private double bloomBytesPerMillion() {
+        return current.bloom().sizeInBytes() * 1_000_000d / Math.max(properties.expectedRevocations(), 1);
+    }
+
+    private double exactSizeInBytes() {
+        return current.exactBytes().sum() + previous.exactBytes().sum();
+    }
+
+    /** NaN, so not reported, until an id is tracked to give the size of the exact set entries */
+    private double bytesPerMillion() {
+        double tracked = size();
+        return tracked == 0 ? Double.NaN : bloomBytesPerMillion() + exactSizeInBytes() * 1_000_000d / tracked;
+    }
+
+    private static long entrySizeInBytes(String accessTokenId) {
+        return SET_ENTRY_BYTES + STRING_BYTES + ((accessTokenId.length() + 7) & ~7);
+    }
+
+    private double falsePositiveProbability() {
+        Generation generation = current;
+        return generation.bloom().falsePositiveProbability(generation.exact().size());
+    }
+
+    private record Generation(long startedAt, BloomFilter bloom, Set<String> exact, LongAdder exactBytes) {}
+}
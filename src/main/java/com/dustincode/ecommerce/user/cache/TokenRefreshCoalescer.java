@@ -0,0 +1,72 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent refreshes of the same session, keyed by the refresh token id.
+ * <p>
+ * The first request runs the refresh, duplicates presenting the same access and refresh token pair wait for it and
+ * get the same {@link GenerateJwtResult}. A successful result stays available for the configured grace window so
+ * late duplicates get it too instead of failing on the already rotated session. A failed refresh is dropped right
+ * away. Only requests reaching this instance are coalesced.
+ */
+@Component
+public class TokenRefreshCoalescer {
+
+    private final Cache<String, Flight> flights;
+    private final Counter coalesced;
+
+    public TokenRefreshCoalescer(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.flights = Caffeine.newBuilder()
+                .expireAfterWrite(applicationProperties.getSecurity().session().refreshGrace())
+                .build();
+        this.coalesced = Counter.builder("user.sessions.refresh.coalesced")
+                .description("Refresh requests answered with the result of a concurrent or recent refresh")
+                .register(meterRegistry);
+    }
+
+    public GenerateJwtResult refresh(String refreshTokenId, String accessTokenId, Supplier<GenerateJwtResult> refresh) {
+        CompletableFuture<GenerateJwtResult> leading = new CompletableFuture<>();
+        Flight flight = flights.get(refreshTokenId, key -> new Flight(accessTokenId, leading));
+        if (flight.result() != leading) {
+            if (!flight.accessTokenId().equals(accessTokenId)) {
+                // Same refresh token with another access token, e.g. the one issued by the shared refresh
+                return refresh.get();
+            }
+            coalesced.increment();
+            return join(flight.result());
+        }
+
+        try {
+            GenerateJwtResult result = refresh.get();
+            leading.complete(result);
+            // Restart the expiry so the grace window counts from the end of the refresh
+            flights.asMap().replace(refreshTokenId, flight, new Flight(accessTokenId, leading));
+            return result;
+        } catch (RuntimeException exception) {
+            flights.asMap().remove(refreshTokenId, flight);
+            leading.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    private static GenerateJwtResult join(CompletableFuture<GenerateJwtResult> result) {
+        try {
+            return result.join();
+        } catch (CompletionException exception) {
+            throw exception.getCause() instanceof RuntimeException cause ? cause : exception;
+        }
+    }
+
+    private record Flight(String accessTokenId, CompletableFuture<GenerateJwtResult> result) {}
+}
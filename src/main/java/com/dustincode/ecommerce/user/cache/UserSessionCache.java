@@ -0,0 +1,171 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionCacheProperties;
+import com.dustincode.ecommerce.core.utils.DateUtils;
+import com.dustincode.ecommerce.user.dto.UserSessionSummary;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded local cache in front of the session lookup done for every authenticated request.
+ * <p>
+ * Positive entries live until the session's {@code expireTime}, negative entries (unknown or revoked token ids)
+ * live for the configured negative TTL. In stateless mode only the userId to sessionVersion map is used, its entries
+ * live for the configured version TTL which bounds how long another instance may accept a revoked version.
+ * Every revocation must go through {@link #evict(String)} or {@link #evictAllByUserId(Long)}, which evict immediately
+ * and once more after the surrounding transaction commits so a concurrent lookup cannot re-populate the cache with a
+ * row that is about to be deleted.
+ * <p>
+ * Both caches hold futures: a miss installs an empty future and the database is read by the calling thread outside
+ * of the cache's internal lock, so concurrent lookups of the same key still wait for a single load, but a virtual
+ * thread blocked on the database never pins its carrier thread.
+ */
+@Slf4j
+@Component
+public class UserSessionCache {
+
+    public static final String CACHE_NAME = "user.sessions";
+    public static final String VERSION_CACHE_NAME = "user.session-versions";
+
+    private final AsyncCache<String, SessionEntry> cache;
+    private final AsyncCache<Long, Long> versions;
+
+    public UserSessionCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        SessionCacheProperties properties = applicationProperties.getSecurity().session().cache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new SessionEntryExpiry(properties.negativeTtl()))
+                .recordStats()
+                .buildAsync();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.versionTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, VERSION_CACHE_NAME);
+    }
+
+    public boolean isValid(String accessTokenId, Function<String, Optional<UserSessionSummary>> loader) {
+        if (Objects.isNull(accessTokenId)) {
+            return false;
+        }
+        return getOrLoad(cache, accessTokenId, key -> loader.apply(key)
+                .map(session -> new SessionEntry(session.userId(), session.expireTime()))
+                .orElse(SessionEntry.REVOKED)
+        ).valid();
+    }
+
+    public boolean isCurrentVersion(Long userId, long sessionVersion, Function<Long, Optional<Long>> loader) {
+        if (Objects.isNull(userId)) {
+            return false;
+        }
+        Long currentVersion = getOrLoad(versions, userId, key -> loader.apply(key).orElse(null));
+        return Objects.nonNull(currentVersion) && currentVersion == sessionVersion;
+    }
+
+    public void evict(String accessTokenId) {
+        if (Objects.isNull(accessTokenId)) {
+            return;
+        }
+        cache.synchronous().invalidate(accessTokenId);
+        afterCommit(() -> cache.synchronous().invalidate(accessTokenId));
+    }
+
+    public void evictAllByUserId(Long userId) {
+        if (Objects.isNull(userId)) {
+            return;
+        }
+        Runnable eviction = () -> {
+            versions.synchronous().invalidate(userId);
+            cache.synchronous().asMap().values().removeIf(entry -> userId.equals(entry.userId()));
+        };
+        eviction.run();
+        afterCommit(eviction);
+    }
+
+    /**
+     * Returns the cached value or loads it on the calling thread. Only installing the future happens inside the
+     * cache's compute, callers racing for the same key wait on that future instead of a monitor.
+     */
+    private static <K, V> V getOrLoad(AsyncCache<K, V> asyncCache, K key, Function<K, V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> value = asyncCache.get(key, (k, executor) -> loading);
+        if (value != loading) {
+            try {
+                return value.join();
+            } catch (CompletionException exception) {
+                throw exception.getCause() instanceof RuntimeException cause ? cause : exception;
+            }
+        }
+        try {
+            V loaded = loader.apply(key);
+            loading.complete(loaded);
+            return loaded;
+        } catch (RuntimeException exception) {
+            loading.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record SessionEntry(Long userId, Instant expireTime) {
+
+        private static final SessionEntry REVOKED = new SessionEntry(null, null);
+
+        boolean valid() {
+            return Objects.nonNull(expireTime);
+        }
+    }
+
+    private record SessionEntryExpiry(Duration negativeTtl) implements Expiry<String, SessionEntry> {
+
+        @Override
+        public long expireAfterCreate(@Nonnull String key, @Nonnull SessionEntry entry, long currentTime) {
+            if (!entry.valid()) {
+                return negativeTtl.toNanos();
+            }
+            // A session whose access token already expired still exists for the refresh flow, keep it briefly only
+            Duration remaining = Duration.between(DateUtils.currentInstant(), entry.expireTime());
+            return remaining.isNegative() ? negativeTtl.toNanos() : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(@Nonnull String key, @Nonnull SessionEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(@Nonnull String key, @Nonnull SessionEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.dustincode.ecommerce.user.controller;
+
+import com.dustincode.ecommerce.core.utils.PaginationUtils;
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.core.utils.query.QueryPage;
+import com.dustincode.ecommerce.user.dto.UserCriteria;
+import com.dustincode.ecommerce.user.dto.UserCursor;
+import com.dustincode.ecommerce.user.dto.UserFileFormat;
+import com.dustincode.ecommerce.user.dto.UserImportProgress;
+import com.dustincode.ecommerce.user.dto.UserOverview;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.service.UserExportService;
+import com.dustincode.ecommerce.user.service.UserImportService;
+import com.dustincode.ecommerce.user.service.UserQueryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static com.dustincode.ecommerce.core.constant.CommonConstants.TEXT_CSV_VALUE;
+
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final UserQueryService userQueryService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Lists the users matching the criteria, newest first. The {@code Link} header holds the {@code next} page, whose
+     * cursor is the last user of this one. The total is {@link PaginationMode#ESTIMATED}, an exact count of a large
+     * user table would cost more than the page itself.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPER_ADMIN')")
+    @GetMapping
+    public ResponseEntity<List<UserOverview>> searchUsers(
+            UserCriteria criteria,
+            @RequestParam(name = PaginationUtils.CURSOR_PARAM, required = false) String cursor,
+            @RequestParam(name = PaginationUtils.SIZE_PARAM, defaultValue = "20") int size
+    ) {
+        QueryPage<User> page = userQueryService.findByCriteria(
+                criteria,
+                Optional.ofNullable(cursor).map(UserCursor::decode).orElse(null),
+                size,
+                PaginationMode.ESTIMATED
+        );
+        Window<User> users = page.window();
+        String nextCursor = users.hasNext() && !users.isEmpty()
+                ? UserCursor.of(users.getContent().get(users.size() - 1)).encode()
+                : null;
+        HttpHeaders headers = PaginationUtils.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                nextCursor,
+                size,
+                page
+        );
+        return ResponseEntity.ok().headers(headers).body(users.map(UserOverview::of).getContent());
+    }
+
+    /**
+     * Reads the request body as it arrives, not as a multipart upload, and writes one {@link UserImportProgress} line
+     * per imported chunk.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPER_ADMIN')")
+    @PostMapping(
+            value = "/import",
+            consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserFileFormat format = UserFileFormat.of(request.getContentType());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream output = response.getOutputStream();
+        userImportService.importUsers(request.getInputStream(), format, progress -> writeLine(output, progress));
+    }
+
+    /**
+     * Writes every user straight to the response as the rows come from the database.
+     */
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPER_ADMIN')")
+    @GetMapping(value = "/export", produces = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void exportUsers(
+            @RequestParam(defaultValue = "CSV") UserFileFormat format,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(format.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("users." + format.name().toLowerCase(Locale.ROOT))
+                .build()
+                .toString());
+        userExportService.exportUsers(format, response.getOutputStream());
+    }
+
+    private void writeLine(OutputStream output, UserImportProgress progress) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(progress));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
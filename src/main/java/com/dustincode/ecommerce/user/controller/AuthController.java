@@ -7,6 +7,7 @@ import com.dustincode.ecommerce.user.dto.ResetPasswordRequest;
 import com.dustincode.ecommerce.user.service.AuthService;
 import com.dustincode.ecommerce.user.service.UserService;
 import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -32,9 +33,16 @@ public class AuthController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * The remote address is the client IP taken from the X-Forwarded-For of trusted proxies, see
+     * {@code server.forward-headers-strategy}.
+     */
     @PostMapping(value = "/api/v1/login")
-    public ResponseEntity<GenerateJwtResult> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<GenerateJwtResult> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpServletRequest
+    ) {
+        return ResponseEntity.ok(authService.login(request, httpServletRequest.getRemoteAddr()));
     }
 
     @PostMapping(value = REFRESH_TOKEN_URL)
@@ -33,6 +33,12 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll() {
+        authService.logoutAll(SecurityUtils.getUserId());
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping(value = "/change-password")
     public ResponseEntity<Void> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
         userService.changePassword(SecurityUtils.getUserId(), request);
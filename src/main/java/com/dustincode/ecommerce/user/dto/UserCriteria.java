@@ -0,0 +1,77 @@
+package com.dustincode.ecommerce.user.dto;
+
+import com.dustincode.ecommerce.core.utils.query.Criteria;
+import com.dustincode.ecommerce.core.utils.query.filter.Filter;
+import com.dustincode.ecommerce.core.utils.query.filter.InstantFilter;
+import com.dustincode.ecommerce.core.utils.query.filter.StringFilter;
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Filters of the admin user search, bound from request parameters such as {@code email.contains=dustin} or
+ * {@code createdDate.greaterThan=2026-01-01T00:00:00Z}.
+ */
+@Data
+@NoArgsConstructor
+public class UserCriteria implements Criteria, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private StringFilter email;
+    private StringFilter phone;
+    private RoleFilter role;
+    private MFATypeFilter mfaType;
+    private InstantFilter createdDate;
+
+    public UserCriteria(UserCriteria other) {
+        this.email = Optional.ofNullable(other.email).map(StringFilter::copy).orElse(null);
+        this.phone = Optional.ofNullable(other.phone).map(StringFilter::copy).orElse(null);
+        this.role = Optional.ofNullable(other.role).map(RoleFilter::copy).orElse(null);
+        this.mfaType = Optional.ofNullable(other.mfaType).map(MFATypeFilter::copy).orElse(null);
+        this.createdDate = Optional.ofNullable(other.createdDate).map(InstantFilter::copy).orElse(null);
+    }
+
+    @Override
+    public UserCriteria copy() {
+        return new UserCriteria(this);
+    }
+
+    public static class RoleFilter extends Filter<Role> {
+
+        private static final long serialVersionUID = 1L;
+
+        public RoleFilter() {
+        }
+
+        public RoleFilter(RoleFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public RoleFilter copy() {
+            return new RoleFilter(this);
+        }
+    }
+
+    public static class MFATypeFilter extends Filter<MFAType> {
+
+        private static final long serialVersionUID = 1L;
+
+        public MFATypeFilter() {
+        }
+
+        public MFATypeFilter(MFATypeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public MFATypeFilter copy() {
+            return new MFATypeFilter(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.dustincode.ecommerce.user.dto;
+
+import com.dustincode.ecommerce.core.exceptions.BadRequestException;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.User_;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.dustincode.ecommerce.core.constant.MessageConstant.INVALID_CURSOR_ERR;
+
+/**
+ * Position of the user search after the given user, in {@code (createdDate, id)} order. Clients get it as an opaque
+ * base64url token and send it back unchanged to read the next page.
+ */
+public record UserCursor(Instant createdDate, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static UserCursor of(User user) {
+        return new UserCursor(user.getCreatedDate(), user.getId());
+    }
+
+    public static UserCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new UserCursor(
+                    Instant.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new BadRequestException(INVALID_CURSOR_ERR);
+        }
+    }
+
+    public String encode() {
+        String value = createdDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public KeysetScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(User_.CREATED_DATE, createdDate);
+        keys.put(User_.ID, id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dustincode.ecommerce.user.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+import static com.dustincode.ecommerce.core.constant.CommonConstants.TEXT_CSV_VALUE;
+
+public enum UserFileFormat {
+    /** Comma separated with a header row naming the columns */
+    CSV(MediaType.parseMediaType(TEXT_CSV_VALUE)),
+    /** One JSON object per line */
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    UserFileFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static UserFileFormat of(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(requested))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported content type " + contentType));
+    }
+}
@@ -0,0 +1,10 @@
+package com.dustincode.ecommerce.user.dto;
+
+/**
+ * A row that was not imported. {@code row} counts data rows from 1, without the CSV header.
+ */
+public record UserImportFailure(
+        long row,
+        String email,
+        String reason
+) {}
@@ -0,0 +1,14 @@
+package com.dustincode.ecommerce.user.dto;
+
+import java.util.List;
+
+/**
+ * Reported after every chunk: the totals since the start of the import and the rows of this chunk that failed.
+ */
+public record UserImportProgress(
+        int chunk,
+        long processedRows,
+        long importedRows,
+        long failedRows,
+        List<UserImportFailure> failures
+) {}
@@ -0,0 +1,43 @@
+package com.dustincode.ecommerce.user.dto;
+
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.UserDetail;
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * A user with its details as admins search and export them, without the password and the MFA secret. The id is
+ * written as a string, TSIDs are larger than the 2^53 a JavaScript number holds exactly.
+ */
+@JsonPropertyOrder({"id", "email", "phone", "role", "mfaType", "name", "address", "createdDate"})
+public record UserOverview(
+        @JsonSerialize(using = ToStringSerializer.class) Long id,
+        String email,
+        String phone,
+        Role role,
+        MFAType mfaType,
+        String name,
+        String address,
+        Instant createdDate
+) {
+
+    public static UserOverview of(User user) {
+        Optional<UserDetail> userDetail = Optional.ofNullable(user.getUserDetail());
+        return new UserOverview(
+                user.getId(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getRole(),
+                user.getMfaType(),
+                userDetail.map(UserDetail::getName).orElse(null),
+                userDetail.map(UserDetail::getAddress).orElse(null),
+                user.getCreatedDate()
+        );
+    }
+}
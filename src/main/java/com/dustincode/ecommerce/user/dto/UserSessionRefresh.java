@@ -0,0 +1,16 @@
+package com.dustincode.ecommerce.user.dto;
+
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+
+/**
+ * A session with the user columns needed to issue its next access token, read in one query.
+ */
+public record UserSessionRefresh(
+        Long sessionId,
+        Long userId,
+        String email,
+        Role role,
+        MFAType mfaType,
+        Long sessionVersion
+) {}
@@ -0,0 +1,8 @@
+package com.dustincode.ecommerce.user.dto;
+
+import java.time.Instant;
+
+public record UserSessionSummary(
+        Long userId,
+        Instant expireTime
+) {}
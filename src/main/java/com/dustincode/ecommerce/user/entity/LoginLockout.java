@@ -0,0 +1,34 @@
+package com.dustincode.ecommerce.user.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A login throttling key that ran out of attempts. The key is a hash of the email, phone or client IP so the table
+ * never stores them in clear.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "t_login_lockouts")
+public class LoginLockout {
+
+    @Id
+    @Column(name = "lock_key", nullable = false)
+    private Long key;
+
+    @Column(name = "blocked_until", nullable = false)
+    private Instant blockedUntil;
+}
@@ -1,6 +1,7 @@
 package com.dustincode.ecommerce.user.entity;
 
 import com.dustincode.ecommerce.core.audit.AbstractAuditingEntity;
+import com.dustincode.ecommerce.core.id.Tsid;
 import com.dustincode.ecommerce.core.utils.DateUtils;
 import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
 import com.dustincode.ecommerce.user.entity.enumerations.Role;
@@ -14,13 +15,12 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -30,9 +30,6 @@ import lombok.experimental.SuperBuilder;
 import java.time.Instant;
 import java.util.List;
 
-import static com.dustincode.ecommerce.core.security.SecurityUtils.encodePassword;
-import static com.dustincode.ecommerce.core.security.SecurityUtils.matchPassword;
-
 @Getter
 @Setter
 @SuperBuilder
@@ -43,7 +40,7 @@ import static com.dustincode.ecommerce.core.security.SecurityUtils.matchPassword
 public class User extends AbstractAuditingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -69,6 +66,11 @@ public class User extends AbstractAuditingEntity {
     @Column(name = "role", nullable = false)
     private Role role;
 
+    @JsonIgnore
+    @Builder.Default
+    @Column(name = "session_version", nullable = false)
+    private Long sessionVersion = 0L;
+
     @JsonIgnore
     @ToString.Exclude
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -90,29 +92,25 @@ public class User extends AbstractAuditingEntity {
         return !MFAType.NONE.equals(mfaType);
     }
 
-    @JsonIgnore
-    public boolean validatePassword(String password) {
-        return matchPassword(password, getPassword());
-    }
-
     @JsonIgnore
     public boolean validateMFA(String mfaCode) {
-        return isEnableMfa() && SecurityUtils.authorizeMFA(getMfaSecret(), mfaCode);
+        return !isEnableMfa() || SecurityUtils.authorizeMFA(getMfaSecret(), mfaCode);
     }
 
     public User(
             @Nonnull Role role,
             @Nonnull String email,
             @Nonnull String phone,
-            @Nonnull String password,
+            @Nonnull String encodedPassword,
             @Nonnull String name,
             @Nonnull String address
     ) {
         this.email = email;
         this.phone = phone;
-        this.password = encodePassword(password);
+        this.password = encodedPassword;
         this.role = role;
         this.mfaType = MFAType.NONE;
+        this.sessionVersion = 0L;
         this.userDetail = UserDetail.builder()
                 .user(this)
                 .name(name)
@@ -130,63 +128,54 @@ public class User extends AbstractAuditingEntity {
         getUserDetail().setAddress(address);
     }
 
-    public void addUserSession(
+    /**
+     * Builds a session owned by this user without touching the lazy {@link #userSessions} collection, the caller
+     * persists it through {@code UserSessionRepository}.
+     */
+    public UserSession newUserSession(
             @Nonnull String accessTokenId,
             @Nonnull String refreshTokenId,
             @Nonnull Instant expireTime
     ) {
-        getUserSessions().add(UserSession.builder()
+        return UserSession.builder()
                 .user(this)
                 .accessTokenId(accessTokenId)
                 .refreshTokenId(refreshTokenId)
                 .expireTime(expireTime)
-                .build());
+                .build();
     }
 
-    public void removeUserSession(@Nonnull String accessTokenId) {
-        getUserSessions().remove(UserSession.builder()
-                .accessTokenId(accessTokenId)
-                .build());
+    public void updatePassword(@Nonnull String encodedPassword) {
+        setPassword(encodedPassword);
+        invalidateSessionVersion();
     }
 
-    public boolean updatePassword(String oldPassword, String newPassword) {
-        if (!matchPassword(oldPassword, getPassword())) {
-            return false;
-        }
-        setPassword(encodePassword(newPassword));
-        removeAllSessions();
-        return true;
+    /**
+     * Replaces the hash of the current password by a stronger one, sessions stay valid since the password is the same.
+     */
+    public void upgradePasswordHash(@Nonnull String encodedPassword) {
+        setPassword(encodedPassword);
     }
 
-    public void removeAllSessions() {
-        getUserSessions().forEach(session -> session.setUser(null));
-        getUserSessions().clear();
+    /**
+     * Invalidates every token issued so far in stateless session mode, the session rows themselves are deleted in
+     * bulk by {@code AuthService.revokeAllSessions}.
+     */
+    public void invalidateSessionVersion() {
+        setSessionVersion(getSessionVersion() + 1);
     }
 
-    public UserToken createResetPasswordToken() {
-        removeOldToken(TokenType.RESET_PASSWORD);
-        UserToken newToken = UserToken.builder()
+    /**
+     * Builds a reset password token without touching the lazy {@link #userTokens} collection, the caller revokes
+     * the previous ones and persists it through {@code UserTokenRepository}.
+     */
+    public UserToken newResetPasswordToken() {
+        return UserToken.builder()
                 .user(this)
                 .type(TokenType.RESET_PASSWORD)
                 .token(SecurityUtils.generateRandomCode())
                 .channel(TokenChannel.EMAIL)
                 .expireTime(DateUtils.currentInstant().plusSeconds(1800))
                 .build();
-        getUserTokens().add(newToken);
-        return newToken;
-    }
-
-    public void removeOldToken(@Nonnull TokenType type) {
-        List<UserToken> tokens = getUserTokens()
-                .stream()
-                .filter(token -> type.equals(token.getType()))
-                .toList();
-        getUserTokens().removeAll(tokens);
-    }
-
-    public void resetPassword(String newPassword) {
-        setPassword(encodePassword(newPassword));
-        removeAllSessions();
-        removeOldToken(TokenType.RESET_PASSWORD);
     }
 }
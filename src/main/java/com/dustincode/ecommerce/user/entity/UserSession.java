@@ -1,12 +1,11 @@
 package com.dustincode.ecommerce.user.entity;
 
 import com.dustincode.ecommerce.core.audit.AbstractAuditingEntity;
+import com.dustincode.ecommerce.core.id.Tsid;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -31,7 +30,7 @@ import java.util.Objects;
 public class UserSession extends AbstractAuditingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -1,6 +1,7 @@
 package com.dustincode.ecommerce.user.entity;
 
 import com.dustincode.ecommerce.core.audit.AbstractAuditingEntity;
+import com.dustincode.ecommerce.core.id.Tsid;
 import com.dustincode.ecommerce.user.entity.enumerations.TokenChannel;
 import com.dustincode.ecommerce.user.entity.enumerations.TokenType;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -9,8 +10,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -35,7 +34,7 @@ import java.util.Objects;
 public class UserToken extends AbstractAuditingEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -1,7 +1,42 @@
 package com.dustincode.ecommerce.user.entity.enumerations;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public enum Role {
     USER,
     ADMIN,
-    SUPER_ADMIN
+    SUPER_ADMIN;
+
+    private static final Map<String, Role> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Role::name, Function.identity()));
+
+    private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(name()));
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * @return the authorities of the given names, the shared list of the role when it is a single known role
+     */
+    public static List<GrantedAuthority> authoritiesOf(Collection<?> names) {
+        if (names.size() == 1) {
+            Role role = BY_NAME.get(String.valueOf(names.iterator().next()));
+            if (role != null) {
+                return role.authorities;
+            }
+        }
+        return names.stream()
+                .map(String::valueOf)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
 }
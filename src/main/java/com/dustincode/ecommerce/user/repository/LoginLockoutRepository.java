@@ -0,0 +1,23 @@
+package com.dustincode.ecommerce.user.repository;
+
+import com.dustincode.ecommerce.user.entity.LoginLockout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LoginLockoutRepository extends JpaRepository<LoginLockout, Long> {
+
+    List<LoginLockout> findAllByBlockedUntilAfter(Instant time);
+
+    @Transactional
+    @Modifying
+    @Query("delete from LoginLockout l where l.blockedUntil < :time")
+    int deleteAllByBlockedUntilBefore(@Param("time") Instant time);
+}
@@ -1,20 +1,54 @@
 package com.dustincode.ecommerce.user.repository;
 
+import com.dustincode.ecommerce.user.dto.UserOverview;
 import com.dustincode.ecommerce.user.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /** Rows per round trip of the export cursor, enough to amortize the latency while keeping the buffer small */
+    String EXPORT_FETCH_SIZE = "1000";
+
     default User safeSave(User entity) {
         return save(entity);
     }
 
-    boolean existsByEmailOrPhone(String email, String phone);
+    boolean existsByEmail(String email);
+    boolean existsByPhone(String phone);
     boolean existsByPhoneAndIdIsNot(String phone, Long id);
     Optional<User> findByEmail(String email);
     Optional<User> findByPhone(String phone);
+
+    @Query("select u.sessionVersion from User u where u.id = :id")
+    Optional<Long> findSessionVersionById(@Param("id") Long id);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("select u.phone from User u where u.phone in :phones")
+    List<String> findPhonesByPhoneIn(@Param("phones") Collection<String> phones);
+
+    /**
+     * Reads every user in id order through a forward-only cursor, {@link #EXPORT_FETCH_SIZE} rows at a time. The rows
+     * are not managed entities, so the persistence context stays empty however many are read. Must be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new com.dustincode.ecommerce.user.dto.UserOverview("
+            + "u.id, u.email, u.phone, u.role, u.mfaType, d.name, d.address, u.createdDate) "
+            + "from User u left join u.userDetail d order by u.id")
+    Stream<UserOverview> streamAllForExport();
 }
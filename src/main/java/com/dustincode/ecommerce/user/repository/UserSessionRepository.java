@@ -1,15 +1,86 @@
 package com.dustincode.ecommerce.user.repository;
 
+import com.dustincode.ecommerce.user.dto.UserSessionRefresh;
+import com.dustincode.ecommerce.user.dto.UserSessionSummary;
 import com.dustincode.ecommerce.user.entity.UserSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserSessionRepository extends JpaRepository<UserSession, Long> {
 
-    Optional<UserSession> findByAccessTokenIdAndRefreshTokenId(String accessTokenId, String refreshTokenId);
     boolean existsByAccessTokenId(String accessTokenId);
-    void deleteByAccessTokenId(String accessTokenId);
+
+    @Query("select new com.dustincode.ecommerce.user.dto.UserSessionRefresh("
+            + "s.id, u.id, u.email, u.role, u.mfaType, u.sessionVersion) "
+            + "from UserSession s join s.user u "
+            + "where s.accessTokenId = :accessTokenId and s.refreshTokenId = :refreshTokenId")
+    Optional<UserSessionRefresh> findRefreshByAccessTokenIdAndRefreshTokenId(
+            @Param("accessTokenId") String accessTokenId,
+            @Param("refreshTokenId") String refreshTokenId
+    );
+
+    /**
+     * Moves the session to its new access token, only if it still holds the old one.
+     *
+     * @return 0 when the session was rotated or deleted in the meantime
+     */
+    @Modifying
+    @Query("update UserSession s set s.accessTokenId = :newAccessTokenId, s.expireTime = :expireTime, "
+            + "s.lastModifiedDate = :now where s.id = :id and s.accessTokenId = :accessTokenId")
+    int rotateAccessToken(
+            @Param("id") Long id,
+            @Param("accessTokenId") String accessTokenId,
+            @Param("newAccessTokenId") String newAccessTokenId,
+            @Param("expireTime") Instant expireTime,
+            @Param("now") Instant now
+    );
+
+    @Modifying
+    @Query("delete from UserSession s where s.accessTokenId = :accessTokenId")
+    int deleteByAccessTokenId(@Param("accessTokenId") String accessTokenId);
+
+    @Modifying
+    @Query("delete from UserSession s where s.accessTokenId = :accessTokenId and s.user.id = :userId")
+    int deleteByAccessTokenIdAndUserId(@Param("accessTokenId") String accessTokenId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from UserSession s where s.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from UserSession s where s.accessTokenId in :accessTokenIds")
+    int deleteAllByAccessTokenIdIn(@Param("accessTokenIds") Collection<String> accessTokenIds);
+
+    /**
+     * @return the access token ids of the user's sessions after the {@code offset} most recently created ones
+     */
+    @Query(value = "SELECT access_token_id FROM t_user_sessions WHERE fk_user_id = :userId "
+            + "ORDER BY id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<String> findAccessTokenIdsBeyond(
+            @Param("userId") Long userId,
+            @Param("offset") int offset,
+            @Param("limit") int limit
+    );
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM t_user_sessions WHERE expire_time < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query("select min(s.expireTime) from UserSession s where s.expireTime < :cutoff")
+    Optional<Instant> findOldestExpireTimeBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("select new com.dustincode.ecommerce.user.dto.UserSessionSummary(s.user.id, s.expireTime) "
+            + "from UserSession s where s.accessTokenId = :accessTokenId")
+    Optional<UserSessionSummary> findSummaryByAccessTokenId(@Param("accessTokenId") String accessTokenId);
 }
@@ -4,12 +4,29 @@ import com.dustincode.ecommerce.user.entity.UserToken;
 import com.dustincode.ecommerce.user.entity.enumerations.TokenChannel;
 import com.dustincode.ecommerce.user.entity.enumerations.TokenType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
 public interface UserTokenRepository extends JpaRepository<UserToken, Long> {
 
     Optional<UserToken> findByTokenAndTypeAndChannel(String token, TokenType type, TokenChannel channel);
+
+    @Modifying
+    @Query("delete from UserToken t where t.user.id = :userId and t.type = :type")
+    int deleteAllByUserIdAndType(@Param("userId") Long userId, @Param("type") TokenType type);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM t_user_tokens WHERE token_expire_time < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query("select min(t.expireTime) from UserToken t where t.expireTime < :cutoff")
+    Optional<Instant> findOldestExpireTimeBefore(@Param("cutoff") Instant cutoff);
 }
@@ -1,11 +1,14 @@
 package com.dustincode.ecommerce.user.service;
 
+import com.dustincode.ecommerce.core.security.jwt.ExtractJwtResult;
 import com.dustincode.ecommerce.user.dto.LoginRequest;
 import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
 
 public interface AuthService {
-    boolean validateSession(String accessTokenId);
-    GenerateJwtResult login(LoginRequest request);
+    boolean validateSession(ExtractJwtResult accessToken);
+    GenerateJwtResult login(LoginRequest request, String clientIp);
     GenerateJwtResult refreshAccessToken(String accessToken, String refreshToken);
     void logout(Long userId, String accessToken);
+    void logoutAll(Long userId);
+    void revokeAllSessions(Long userId);
 }
@@ -0,0 +1,8 @@
+package com.dustincode.ecommerce.user.service;
+
+public interface ExpiredTokenPurgeService {
+
+    void purge();
+    long purgeExpiredSessions();
+    long purgeExpiredTokens();
+}
@@ -0,0 +1,7 @@
+package com.dustincode.ecommerce.user.service;
+
+public interface LoginLockoutService {
+
+    void flush();
+    void restore();
+}
@@ -0,0 +1,10 @@
+package com.dustincode.ecommerce.user.service;
+
+import com.dustincode.ecommerce.user.dto.UserFileFormat;
+
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    long exportUsers(UserFileFormat format, OutputStream output);
+}
@@ -0,0 +1,12 @@
+package com.dustincode.ecommerce.user.service;
+
+import com.dustincode.ecommerce.user.dto.UserFileFormat;
+import com.dustincode.ecommerce.user.dto.UserImportProgress;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface UserImportService {
+
+    void importUsers(InputStream input, UserFileFormat format, Consumer<UserImportProgress> progressListener);
+}
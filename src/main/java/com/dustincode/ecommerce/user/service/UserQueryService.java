@@ -1,5 +1,9 @@
 package com.dustincode.ecommerce.user.service;
 
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.core.utils.query.QueryPage;
+import com.dustincode.ecommerce.user.dto.UserCriteria;
+import com.dustincode.ecommerce.user.dto.UserCursor;
 import com.dustincode.ecommerce.user.entity.User;
 
 import java.util.Optional;
@@ -9,4 +13,12 @@ public interface UserQueryService {
     Optional<User> getUserById(Long userId);
     Optional<User> getUserByEmail(String email);
     Optional<User> getUserByEmailOrPhone(String email, String phone);
+    Optional<Long> getSessionVersion(Long userId);
+
+    /**
+     * @param cursor the last user of the previous page, {@code null} for the first page
+     * @param mode   how to count the users matching the criteria
+     * @return up to {@code size} users matching the criteria, newest first, with their details
+     */
+    QueryPage<User> findByCriteria(UserCriteria criteria, UserCursor cursor, int size, PaginationMode mode);
 }
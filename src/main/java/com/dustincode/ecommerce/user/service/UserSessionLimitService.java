@@ -0,0 +1,6 @@
+package com.dustincode.ecommerce.user.service;
+
+public interface UserSessionLimitService {
+
+    int enforceLimit(Long userId);
+}
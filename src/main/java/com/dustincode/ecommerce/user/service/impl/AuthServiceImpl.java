@@ -1,27 +1,43 @@
 package com.dustincode.ecommerce.user.service.impl;
 
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
 import com.dustincode.ecommerce.core.exceptions.AuthenticationException;
 import com.dustincode.ecommerce.core.exceptions.BadRequestException;
+import com.dustincode.ecommerce.core.exceptions.TooManyRequestsException;
+import com.dustincode.ecommerce.core.security.PasswordHasher;
+import com.dustincode.ecommerce.core.security.SessionMode;
 import com.dustincode.ecommerce.core.security.jwt.ExtractJwtResult;
 import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
 import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
+import com.dustincode.ecommerce.core.utils.DateUtils;
+import com.dustincode.ecommerce.core.utils.StringUtils;
+import com.dustincode.ecommerce.user.cache.LoginAttemptLimiter;
+import com.dustincode.ecommerce.user.cache.LoginAttemptLimiter.Scope;
+import com.dustincode.ecommerce.user.cache.RevokedTokenRegistry;
+import com.dustincode.ecommerce.user.cache.TokenRefreshCoalescer;
+import com.dustincode.ecommerce.user.cache.UserSessionCache;
 import com.dustincode.ecommerce.user.dto.LoginRequest;
+import com.dustincode.ecommerce.user.dto.UserSessionRefresh;
 import com.dustincode.ecommerce.user.entity.User;
-import com.dustincode.ecommerce.user.entity.UserSession;
 import com.dustincode.ecommerce.user.repository.UserSessionRepository;
 import com.dustincode.ecommerce.user.service.AuthService;
 import com.dustincode.ecommerce.user.service.UserQueryService;
+import com.dustincode.ecommerce.user.service.UserSessionLimitService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Objects;
 import java.util.Optional;
 
+import static com.dustincode.ecommerce.core.constant.MessageConstant.INVALID_CREDENTIAL_AND_BLOCKED_ERR;
 import static com.dustincode.ecommerce.core.constant.MessageConstant.INVALID_CREDENTIAL_ERR;
 import static com.dustincode.ecommerce.core.constant.MessageConstant.INVALID_REFRESH_TOKEN_ERR;
 import static com.dustincode.ecommerce.core.constant.MessageConstant.USER_NOT_FOUND_ERR;
+import static com.dustincode.ecommerce.core.constant.MessageConstant.USER_WAS_BLOCKED_ERR;
 
 @Slf4j
 @Service
@@ -34,36 +50,95 @@ public class AuthServiceImpl implements AuthService {
 
     /** Services */
     private final UserQueryService userQueryService;
+    private final UserSessionLimitService userSessionLimitService;
 
     /** Others */
     private final JwtProvider jwtProvider;
+    private final UserSessionCache userSessionCache;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final PasswordHasher passwordHasher;
+    private final TokenRefreshCoalescer tokenRefreshCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties applicationProperties;
 
+    /**
+     * Revoked tokens are rejected in process. Tokens not revoked here still go through {@link UserSessionCache}, which
+     * answers from memory once loaded: the registry only sees this instance's revocations, so accepting on its word
+     * alone would let a token logged out on another instance through. In {@code STATELESS} mode no lookup hits
+     * {@code t_user_sessions} at all.
+     */
     @Override
-    public boolean validateSession(String accessTokenId) {
-        return userSessionRepository.existsByAccessTokenId(accessTokenId);
+    public boolean validateSession(ExtractJwtResult accessToken) {
+        if (revokedTokenRegistry.isRevoked(accessToken.getTokenId())) {
+            return false;
+        }
+        if (SessionMode.STATELESS == applicationProperties.getSecurity().session().mode()) {
+            return userSessionCache.isCurrentVersion(
+                    accessToken.getUserId(),
+                    accessToken.getSessionVersion(),
+                    userQueryService::getSessionVersion
+            );
+        }
+        return userSessionCache.isValid(accessToken.getTokenId(), userSessionRepository::findSummaryByAccessTokenId);
     }
 
     @Override
     @Transactional
-    public GenerateJwtResult login(LoginRequest request) {
-        return userQueryService
-                .getUserByEmailOrPhone(request.getEmail(), request.getPhone())
-                .filter(user -> user.validatePassword(request.getPassword()))
-                .filter(user -> user.validateMFA(request.getMfaCode()))
-                .map(user -> {
-                    GenerateJwtResult token = jwtProvider.generateTokens(user);
-                    user.addUserSession(
-                            token.accessTokenId(),
-                            token.refreshTokenId(),
-                            token.expireTime()
-                    );
-                    return token;
-                })
-                .orElseThrow(() -> new AuthenticationException(INVALID_CREDENTIAL_ERR));
+    public GenerateJwtResult login(LoginRequest request, String clientIp) {
+        String identifier = StringUtils.isNotBlank(request.getEmail()) ? request.getEmail() : request.getPhone();
+        long identifierKey = loginAttemptLimiter.key(Scope.IDENTIFIER, identifier);
+        long ipKey = loginAttemptLimiter.key(Scope.IP, clientIp);
+        if (!loginAttemptLimiter.tryAcquire(Scope.IP, ipKey)) {
+            throw new TooManyRequestsException(USER_WAS_BLOCKED_ERR);
+        }
+        if (!loginAttemptLimiter.tryAcquire(Scope.IDENTIFIER, identifierKey)) {
+            loginAttemptLimiter.release(Scope.IP, ipKey);
+            throw new TooManyRequestsException(USER_WAS_BLOCKED_ERR);
+        }
+
+        // Only a wrong credential keeps the attempts taken, any other failure gives both back
+        boolean credentialMismatch = false;
+        try {
+            Optional<User> authenticated = userQueryService
+                    .getUserByEmailOrPhone(request.getEmail(), request.getPhone())
+                    .filter(user -> passwordHasher.matches(request.getPassword(), user.getPassword()))
+                    .filter(user -> user.validateMFA(request.getMfaCode()));
+            if (authenticated.isEmpty()) {
+                credentialMismatch = true;
+                throw loginAttemptLimiter.isExhausted(Scope.IDENTIFIER, identifierKey)
+                        ? new TooManyRequestsException(INVALID_CREDENTIAL_AND_BLOCKED_ERR)
+                        : new AuthenticationException(INVALID_CREDENTIAL_ERR);
+            }
+
+            User user = authenticated.get();
+            if (passwordHasher.upgradeEncoding(user.getPassword())) {
+                user.upgradePasswordHash(passwordHasher.encode(request.getPassword()));
+                log.info("Upgraded password hash for user id '{}'", user.getId());
+            }
+            GenerateJwtResult token = jwtProvider.generateTokens(user);
+            userSessionRepository.save(user.newUserSession(
+                    token.accessTokenId(),
+                    token.refreshTokenId(),
+                    token.expireTime()
+            ));
+            userSessionLimitService.enforceLimit(user.getId());
+            loginAttemptLimiter.reset(identifierKey);
+            return token;
+        } finally {
+            if (!credentialMismatch) {
+                loginAttemptLimiter.release(Scope.IDENTIFIER, identifierKey);
+                loginAttemptLimiter.release(Scope.IP, ipKey);
+            }
+        }
     }
 
+    /**
+     * Runs outside of a transaction so requests coalesced on the same refresh only wait, the shared refresh runs in
+     * its own transaction and is handed out once committed.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public GenerateJwtResult refreshAccessToken(String accessToken, String refreshToken) {
         ExtractJwtResult accessTokenExtracted = jwtProvider.extractClaims(accessToken);
         ExtractJwtResult refreshTokenExtracted = jwtProvider.extractClaims(refreshToken);
@@ -78,32 +153,61 @@ public class AuthServiceImpl implements AuthService {
             throw new AuthenticationException(INVALID_REFRESH_TOKEN_ERR);
         }
 
-        return userSessionRepository
-                .findByAccessTokenIdAndRefreshTokenId(accessTokenId, refreshTokenId)
-                .map(UserSession::getUser)
-                .map(user -> {
-                    GenerateJwtResult jwtPair = jwtProvider.refreshAccessToken(refreshToken, user);
-                    user.removeUserSession(accessTokenId);
-                    user.addUserSession(
-                            jwtPair.accessTokenId(),
-                            jwtPair.refreshTokenId(),
-                            jwtPair.expireTime()
-                    );
-                    return jwtPair;
-                })
+        return tokenRefreshCoalescer.refresh(refreshTokenId, accessTokenId, () -> transactionTemplate.execute(status ->
+                rotateSession(accessTokenId, refreshTokenId, refreshToken)
+        ));
+    }
+
+    private GenerateJwtResult rotateSession(String accessTokenId, String refreshTokenId, String refreshToken) {
+        UserSessionRefresh session = userSessionRepository
+                .findRefreshByAccessTokenIdAndRefreshTokenId(accessTokenId, refreshTokenId)
                 .orElseThrow(() -> new AuthenticationException(INVALID_REFRESH_TOKEN_ERR));
+
+        GenerateJwtResult jwtPair = jwtProvider.refreshAccessToken(refreshToken, session);
+        int rotated = userSessionRepository.rotateAccessToken(
+                session.sessionId(),
+                accessTokenId,
+                jwtPair.accessTokenId(),
+                jwtPair.expireTime(),
+                DateUtils.currentInstant()
+        );
+        if (rotated == 0) {
+            throw new AuthenticationException(INVALID_REFRESH_TOKEN_ERR);
+        }
+        userSessionCache.evict(accessTokenId);
+        revokedTokenRegistry.revoke(accessTokenId);
+        return jwtPair;
     }
 
     @Override
     @Transactional
     public void logout(Long userId, String accessToken) {
+        Optional.ofNullable(jwtProvider.extractClaims(accessToken))
+                .filter(ExtractJwtResult::isNotInvalid)
+                .map(ExtractJwtResult::getTokenId)
+                .ifPresent(accessTokenId -> {
+                    userSessionRepository.deleteByAccessTokenIdAndUserId(accessTokenId, userId);
+                    userSessionCache.evict(accessTokenId);
+                    revokedTokenRegistry.revoke(accessTokenId);
+                });
+    }
+
+    @Override
+    @Transactional
+    public void logoutAll(Long userId) {
         User user = userQueryService
                 .getUserById(userId)
                 .orElseThrow(() -> new BadRequestException(USER_NOT_FOUND_ERR));
 
-        Optional.ofNullable(jwtProvider.extractClaims(accessToken))
-                .filter(ExtractJwtResult::isNotInvalid)
-                .map(ExtractJwtResult::getTokenId)
-                .ifPresent(user::removeUserSession);
+        user.invalidateSessionVersion();
+        revokeAllSessions(userId);
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllSessions(Long userId) {
+        int deleted = userSessionRepository.deleteAllByUserId(userId);
+        userSessionCache.evictAllByUserId(userId);
+        log.info("Revoked {} sessions of user id '{}'", deleted, userId);
     }
 }
@@ -0,0 +1,141 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PurgeProperties;
+import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
+import com.dustincode.ecommerce.core.utils.DateUtils;
+import com.dustincode.ecommerce.user.repository.UserSessionRepository;
+import com.dustincode.ecommerce.user.repository.UserTokenRepository;
+import com.dustincode.ecommerce.user.service.ExpiredTokenPurgeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Deletes expired sessions and user tokens in chunks of {@code chunkSize} rows, one statement and one transaction per
+ * chunk with a pause in between, so the purge never holds locks on a large range of rows.
+ * <p>
+ * A session row is kept until its refresh token can no longer be used, that is {@code REFRESH_TOKEN_IN_HOURS} after
+ * its access token expired.
+ * <p>
+ * The scheduled purge holds the {@value #LOCK_NAME} scheduler lock, so with several instances only one of them purges
+ * at a time instead of all of them deleting the same ranges.
+ */
+@Slf4j
+@Service
+public class ExpiredTokenPurgeServiceImpl implements ExpiredTokenPurgeService {
+
+    static final String LOCK_NAME = "expired-token-purge";
+
+    private static final Duration SESSION_RETENTION = Duration.ofHours(JwtProvider.REFRESH_TOKEN_IN_HOURS);
+
+    /** Repositories */
+    private final UserSessionRepository userSessionRepository;
+    private final UserTokenRepository userTokenRepository;
+
+    /** Others */
+    private final PurgeProperties properties;
+    private final Counter purgedSessions;
+    private final Counter purgedTokens;
+    private final AtomicLong sessionLagMillis = new AtomicLong();
+    private final AtomicLong tokenLagMillis = new AtomicLong();
+
+    public ExpiredTokenPurgeServiceImpl(
+            UserSessionRepository userSessionRepository,
+            UserTokenRepository userTokenRepository,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userSessionRepository = userSessionRepository;
+        this.userTokenRepository = userTokenRepository;
+        this.properties = applicationProperties.getSecurity().purge();
+
+        this.purgedSessions = Counter.builder("user.purge.rows")
+                .description("Expired rows deleted by the purge")
+                .tag("table", "t_user_sessions")
+                .register(meterRegistry);
+        this.purgedTokens = Counter.builder("user.purge.rows")
+                .description("Expired rows deleted by the purge")
+                .tag("table", "t_user_tokens")
+                .register(meterRegistry);
+        TimeGauge.builder("user.purge.lag", sessionLagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest purgeable row left after the last purge")
+                .tag("table", "t_user_sessions")
+                .register(meterRegistry);
+        TimeGauge.builder("user.purge.lag", tokenLagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest purgeable row left after the last purge")
+                .tag("table", "t_user_tokens")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${application.security.purge.interval}",
+            fixedDelayString = "${application.security.purge.interval}"
+    )
+    @SchedulerLock(name = LOCK_NAME, lockAtLeastFor = "PT1M")
+    public void purge() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long sessions = purgeExpiredSessions();
+        long tokens = purgeExpiredTokens();
+        log.info("Purged {} expired sessions and {} expired user tokens", sessions, tokens);
+    }
+
+    @Override
+    public long purgeExpiredSessions() {
+        Instant cutoff = DateUtils.currentInstant().minus(SESSION_RETENTION);
+        long purged = purgeInChunks(cutoff, userSessionRepository::deleteExpired, purgedSessions);
+        sessionLagMillis.set(lag(cutoff, userSessionRepository::findOldestExpireTimeBefore));
+        return purged;
+    }
+
+    @Override
+    public long purgeExpiredTokens() {
+        Instant cutoff = DateUtils.currentInstant();
+        long purged = purgeInChunks(cutoff, userTokenRepository::deleteExpired, purgedTokens);
+        tokenLagMillis.set(lag(cutoff, userTokenRepository::findOldestExpireTimeBefore));
+        return purged;
+    }
+
+    private long purgeInChunks(Instant cutoff, BiFunction<Instant, Integer, Integer> deleteChunk, Counter counter) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = deleteChunk.apply(cutoff, properties.chunkSize());
+            counter.increment(deleted);
+            total += deleted;
+        } while (deleted == properties.chunkSize() && pause());
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.pause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            log.warn("Purge interrupted");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long lag(Instant cutoff, Function<Instant, Optional<Instant>> oldestExpireTime) {
+        return oldestExpireTime.apply(cutoff)
+                .map(expireTime -> Duration.between(expireTime, cutoff).toMillis())
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,59 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.utils.DateUtils;
+import com.dustincode.ecommerce.user.cache.LoginAttemptLimiter;
+import com.dustincode.ecommerce.user.entity.LoginLockout;
+import com.dustincode.ecommerce.user.repository.LoginLockoutRepository;
+import com.dustincode.ecommerce.user.service.LoginLockoutService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists the lockouts of {@link LoginAttemptLimiter} so an attacker cannot reset them by waiting for a restart.
+ * Only keys that ran out of attempts are written, the remaining buckets start full again after a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginLockoutServiceImpl implements LoginLockoutService {
+
+    /** Repositories */
+    private final LoginLockoutRepository loginLockoutRepository;
+
+    /** Others */
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    @Override
+    @Transactional
+    @Scheduled(
+            initialDelayString = "${application.security.login-throttle.flush-interval}",
+            fixedDelayString = "${application.security.login-throttle.flush-interval}"
+    )
+    public void flush() {
+        Map<Long, Instant> lockouts = loginAttemptLimiter.drainLockouts();
+        List<LoginLockout> rows = lockouts.entrySet().stream()
+                .map(lockout -> new LoginLockout(lockout.getKey(), lockout.getValue()))
+                .toList();
+        loginLockoutRepository.saveAll(rows);
+        int expired = loginLockoutRepository.deleteAllByBlockedUntilBefore(DateUtils.currentInstant());
+        log.debug("Flushed {} login lockouts, removed {} expired ones", rows.size(), expired);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        List<LoginLockout> lockouts = loginLockoutRepository.findAllByBlockedUntilAfter(DateUtils.currentInstant());
+        lockouts.forEach(lockout -> loginAttemptLimiter.restore(lockout.getKey(), lockout.getBlockedUntil()));
+        log.info("Restored {} login lockouts", lockouts.size());
+    }
+}
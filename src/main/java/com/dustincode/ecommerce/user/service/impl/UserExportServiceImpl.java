@@ -0,0 +1,108 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.user.dto.UserFileFormat;
+import com.dustincode.ecommerce.user.dto.UserOverview;
+import com.dustincode.ecommerce.user.repository.UserRepository;
+import com.dustincode.ecommerce.user.service.UserExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writes every user to the output as CSV with a header row or as NDJSON, one row at a time from the export cursor of
+ * {@link UserRepository#streamAllForExport()}. Neither side buffers more than the cursor's fetch size and the
+ * writer's buffer, so the heap use does not depend on the table size.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    /** Repositories */
+    private final UserRepository userRepository;
+
+    /** Others */
+    private final ObjectWriter csvWriter;
+    private final ObjectWriter ndjsonWriter;
+    private final Timer exportTimer;
+    private final Counter exportedRows;
+
+    public UserExportServiceImpl(UserRepository userRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.csvWriter = CSV_MAPPER
+                .writerFor(UserOverview.class)
+                .with(CSV_MAPPER.schemaFor(UserOverview.class).withHeader())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.ndjsonWriter = objectMapper
+                .writerFor(UserOverview.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        this.exportTimer = Timer.builder("user.export.duration")
+                .description("Time spent exporting all users")
+                .register(meterRegistry);
+        this.exportedRows = Counter.builder("user.export.rows")
+                .description("Rows written by the user export")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long exportUsers(UserFileFormat format, OutputStream output) {
+        log.info("Request to export users as {}", format);
+
+        ObjectWriter writer = switch (format) {
+            case CSV -> csvWriter;
+            case NDJSON -> ndjsonWriter;
+        };
+        long startedAt = System.nanoTime();
+        long rows = 0;
+        try (Stream<UserOverview> users = userRepository.streamAllForExport();
+             SequenceWriter sequenceWriter = writer.writeValues(output)) {
+            Iterator<UserOverview> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                sequenceWriter.write(iterator.next());
+                rows++;
+            }
+            if (format == UserFileFormat.NDJSON && rows > 0) {
+                // The separator only goes between rows, end the last line too
+                sequenceWriter.flush();
+                output.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            exportTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            exportedRows.increment(rows);
+            log.info(
+                    "Exported {} users in {} ms, {} rows/s",
+                    rows,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    Math.round(rows / Math.max(elapsed / 1e9, 1e-9))
+            );
+        }
+        return rows;
+    }
+}
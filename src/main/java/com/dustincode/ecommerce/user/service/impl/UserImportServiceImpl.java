@@ -0,0 +1,304 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.security.PasswordHasher;
+import com.dustincode.ecommerce.user.dto.RegisterRequest;
+import com.dustincode.ecommerce.user.dto.UserImportFailure;
+import com.dustincode.ecommerce.user.dto.UserFileFormat;
+import com.dustincode.ecommerce.user.dto.UserImportProgress;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.repository.UserRepository;
+import com.dustincode.ecommerce.user.service.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.dustincode.ecommerce.core.constant.MessageConstant.IMPORT_CHUNK_FAILED_ERR;
+import static com.dustincode.ecommerce.core.constant.MessageConstant.IMPORT_ROW_MALFORMED_ERR;
+import static com.dustincode.ecommerce.core.constant.MessageConstant.USER_ALREADY_EXIST_ERR;
+
+/**
+ * Imports users from a CSV file with a header row, like {@code super_user.csv}, or from NDJSON. Every row is read as a
+ * {@link RegisterRequest} straight from the stream, so the upload is never held in memory. Rows are handled in chunks
+ * of {@code chunkSize}:
+ * <ul>
+ *     <li>rows are validated like a registration, a password that already is a BCrypt hash is kept as it is</li>
+ *     <li>emails and phones are checked against the chunk, and against the database with one query each</li>
+ *     <li>raw passwords are hashed across the hashing threads by {@link PasswordHasher#encodeAll(List)}</li>
+ *     <li>users and their details are inserted in JDBC batches, in one transaction per chunk</li>
+ * </ul>
+ * Rows of earlier chunks are committed by then, so a duplicate further down the file is caught by the database lookup.
+ * A failed chunk is reported and the import goes on; only a row that cannot be parsed stops it.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String PASSWORD_PROPERTY = "password";
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .build();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    /** Repositories */
+    private final UserRepository userRepository;
+
+    /** Others */
+    private final PasswordHasher passwordHasher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public UserImportServiceImpl(
+            UserRepository userRepository,
+            PasswordHasher passwordHasher,
+            Validator validator,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = applicationProperties.getUserImport().chunkSize();
+        if (chunkSize < 1) {
+            throw new IllegalStateException("application.user-import.chunk-size must be at least 1");
+        }
+
+        this.importedRows = importCounter(meterRegistry, "imported");
+        this.failedRows = importCounter(meterRegistry, "failed");
+    }
+
+    @Override
+    public void importUsers(InputStream input, UserFileFormat format, Consumer<UserImportProgress> progressListener) {
+        log.info("Request to import users from {}", format);
+
+        ImportRun run = new ImportRun(progressListener);
+        try (MappingIterator<RegisterRequest> rows = openRows(input, format)) {
+            while (rows.hasNextValue()) {
+                long rowNumber = run.nextRowNumber();
+                try {
+                    run.add(new ImportRow(rowNumber, rows.nextValue()));
+                } catch (JsonMappingException e) {
+                    // The row is well-formed but does not map, the iterator skips to the next one
+                    run.fail(new UserImportFailure(rowNumber, null, IMPORT_ROW_MALFORMED_ERR));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The parser cannot find the next row after a syntax error
+            log.warn("Stopped the import at row {}: {}", run.nextRowNumber(), e.getOriginalMessage());
+            run.fail(new UserImportFailure(run.nextRowNumber(), null, IMPORT_ROW_MALFORMED_ERR));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.flush();
+
+        log.info(
+                "Done import of {} rows: {} imported, {} failed",
+                run.processedRows,
+                run.importedRows,
+                run.failedRows
+        );
+    }
+
+    private MappingIterator<RegisterRequest> openRows(InputStream input, UserFileFormat format) throws IOException {
+        return switch (format) {
+            case CSV -> CSV_MAPPER.readerFor(RegisterRequest.class).with(CSV_SCHEMA).readValues(input);
+            case NDJSON -> objectMapper.readerFor(RegisterRequest.class).readValues(input);
+        };
+    }
+
+    /**
+     * @return the failed rows of the chunk, the other rows are inserted
+     */
+    private List<UserImportFailure> importChunk(List<ImportRow> rows) {
+        List<UserImportFailure> failures = new ArrayList<>();
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (ImportRow row : rows) {
+            Optional<String> violation = validate(row.request());
+            if (violation.isPresent()) {
+                failures.add(row.failure(violation.get()));
+            } else if (emails.contains(row.emailKey()) || phones.contains(row.request().getPhone())) {
+                failures.add(row.failure(USER_ALREADY_EXIST_ERR));
+            } else {
+                emails.add(row.emailKey());
+                phones.add(row.request().getPhone());
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return failures;
+        }
+
+        Set<String> existingEmails = userRepository
+                .findEmailsByEmailIn(accepted.stream().map(row -> row.request().getEmail()).toList())
+                .stream()
+                .map(UserImportServiceImpl::emailKey)
+                .collect(Collectors.toSet());
+        Set<String> existingPhones = new HashSet<>(userRepository.findPhonesByPhoneIn(phones));
+        accepted.removeIf(row -> {
+            boolean exists = existingEmails.contains(row.emailKey()) || existingPhones.contains(row.request().getPhone());
+            if (exists) {
+                failures.add(row.failure(USER_ALREADY_EXIST_ERR));
+            }
+            return exists;
+        });
+
+        List<User> users = newUsers(accepted);
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+        } catch (DataAccessException e) {
+            log.warn("Failed to insert a chunk of {} users: {}", users.size(), e.getMessage());
+            accepted.forEach(row -> failures.add(row.failure(IMPORT_CHUNK_FAILED_ERR)));
+        }
+        return failures;
+    }
+
+    private Optional<String> validate(RegisterRequest request) {
+        boolean encodedPassword = passwordHasher.isEncoded(request.getPassword());
+        return validator.validate(request)
+                .stream()
+                .filter(violation -> !encodedPassword || !PASSWORD_PROPERTY.equals(violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .findFirst();
+    }
+
+    private List<User> newUsers(List<ImportRow> rows) {
+        Iterator<String> encodedPasswords = passwordHasher.encodeAll(rows.stream()
+                .map(row -> row.request().getPassword())
+                .filter(password -> !passwordHasher.isEncoded(password))
+                .toList()
+        ).iterator();
+
+        List<User> users = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            RegisterRequest request = row.request();
+            users.add(new User(
+                    Role.USER,
+                    request.getEmail(),
+                    request.getPhone(),
+                    passwordHasher.isEncoded(request.getPassword()) ? request.getPassword() : encodedPasswords.next(),
+                    request.getName(),
+                    request.getAddress()
+            ));
+        }
+        return users;
+    }
+
+    /** Emails are compared like the case-insensitive collation of {@code t_users.email} */
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter importCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.import.rows")
+                .description("Rows read by the bulk user import")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record ImportRow(long number, RegisterRequest request) {
+
+        String emailKey() {
+            return UserImportServiceImpl.emailKey(request.getEmail());
+        }
+
+        UserImportFailure failure(String reason) {
+            return new UserImportFailure(number, request.getEmail(), reason);
+        }
+    }
+
+    /** Rows of the current chunk and the totals of one import */
+    private final class ImportRun {
+
+        private final Consumer<UserImportProgress> progressListener;
+        private final List<ImportRow> rows = new ArrayList<>(chunkSize);
+        private final List<UserImportFailure> failures = new ArrayList<>();
+        private int chunk;
+        private long processedRows;
+        private long importedRows;
+        private long failedRows;
+
+        ImportRun(Consumer<UserImportProgress> progressListener) {
+            this.progressListener = progressListener;
+        }
+
+        long nextRowNumber() {
+            return processedRows + rows.size() + failures.size() + 1;
+        }
+
+        void add(ImportRow row) {
+            rows.add(row);
+            if (rows.size() + failures.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void fail(UserImportFailure failure) {
+            failures.add(failure);
+            if (rows.size() + failures.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty() && failures.isEmpty()) {
+                return;
+            }
+            int chunkRows = rows.size() + failures.size();
+            failures.addAll(importChunk(rows));
+            failures.sort(Comparator.comparingLong(UserImportFailure::row));
+
+            int imported = chunkRows - failures.size();
+            processedRows += chunkRows;
+            importedRows += imported;
+            failedRows += failures.size();
+            UserImportServiceImpl.this.importedRows.increment(imported);
+            UserImportServiceImpl.this.failedRows.increment(failures.size());
+
+            chunk++;
+            log.info("Imported chunk {}: {} rows read, {} imported, {} failed", chunk, processedRows, importedRows, failedRows);
+            progressListener.accept(new UserImportProgress(chunk, processedRows, importedRows, failedRows, List.copyOf(failures)));
+            rows.clear();
+            failures.clear();
+        }
+    }
+}
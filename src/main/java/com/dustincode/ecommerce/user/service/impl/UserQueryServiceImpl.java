@@ -1,24 +1,62 @@
 package com.dustincode.ecommerce.user.service.impl;
 
+import com.dustincode.ecommerce.core.exceptions.BadRequestException;
+import com.dustincode.ecommerce.core.utils.StringUtils;
+import com.dustincode.ecommerce.core.utils.query.FullTextFunctions;
+import com.dustincode.ecommerce.core.utils.query.PageCounter;
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.core.utils.query.QueryPage;
+import com.dustincode.ecommerce.core.utils.query.QueryService;
+import com.dustincode.ecommerce.core.utils.query.QueryShape;
+import com.dustincode.ecommerce.user.dto.UserCriteria;
+import com.dustincode.ecommerce.user.dto.UserCursor;
 import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.User_;
 import com.dustincode.ecommerce.user.repository.UserRepository;
 import com.dustincode.ecommerce.user.service.UserQueryService;
-import com.dustincode.ecommerce.core.utils.StringUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
+import static com.dustincode.ecommerce.core.constant.MessageConstant.INVALID_PAGE_SIZE_ERR;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class UserQueryServiceImpl implements UserQueryService {
+public class UserQueryServiceImpl extends QueryService<User> implements UserQueryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String USERS_TABLE = "t_users";
+    private static final String SEARCH_ALIAS = "u";
+    private static final String SEARCH_SELECT = "select u from User u left join fetch u.userDetail";
+    private static final String COUNT_SELECT = "select count(u) from User u";
+    /** Matches {@code idx_users_created_date_id}, the id breaks ties between users created in the same microsecond */
+    private static final String SEARCH_ORDER = "u.createdDate desc, u.id desc";
 
+    /** Repositories */
     private final UserRepository userRepository;
 
+    /** Others */
+    private final EntityManager entityManager;
+    private final PageCounter pageCounter;
+
+    /** {@code idx_users_email_fulltext} only exists on MySQL and MariaDB, elsewhere email contains stays a LIKE */
+    @PostConstruct
+    void registerFullTextIndexes() {
+        if (FullTextFunctions.isRegistered(entityManager)) {
+            registerFullTextIndex(User_.email, FullTextFunctions.parserOf(entityManager));
+        }
+    }
+
     @Override
     public Optional<User> getUserById(Long userId) {
         return userRepository.findById(userId);
@@ -35,4 +73,60 @@ public class UserQueryServiceImpl implements UserQueryService {
                 ? getUserByEmail(email)
                 : userRepository.findByPhone(phone);
     }
+
+    @Override
+    public Optional<Long> getSessionVersion(Long userId) {
+        return userRepository.findSessionVersionById(userId);
+    }
+
+    /**
+     * Seeks past the cursor with {@link #compileKeysetBefore} instead of skipping rows with an OFFSET, so every page reads
+     * only its own rows from {@code idx_users_created_date_id}. One more row than asked tells whether there is a next
+     * page, and the details are fetched in the same query. The criteria are compiled to JPQL, so each combination of
+     * filters is translated by Hibernate once. The total is counted on the filters only, it is the same on every page.
+     */
+    @Override
+    public QueryPage<User> findByCriteria(UserCriteria criteria, UserCursor cursor, int size, PaginationMode mode) {
+        log.debug("Request to find users by criteria: {}, after: {}, counted: {}", criteria, cursor, mode);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException(INVALID_PAGE_SIZE_ERR);
+        }
+
+        QueryShape shape = createShape(criteria);
+        Optional<Long> totalCount = pageCounter.count(mode, shape, COUNT_SELECT, USERS_TABLE);
+        if (cursor != null) {
+            compileKeysetBefore(shape, User_.createdDate, cursor.createdDate(), User_.id, cursor.id());
+        }
+        List<User> users = shape.createQuery(entityManager, SEARCH_SELECT, SEARCH_ORDER, User.class)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = users.size() > size;
+        List<User> content = hasNext ? users.subList(0, size) : users;
+        Window<User> window = Window.from(content, index -> UserCursor.of(content.get(index)).toScrollPosition(), hasNext);
+        return QueryPage.of(window, mode, totalCount);
+    }
+
+    private QueryShape createShape(UserCriteria criteria) {
+        QueryShape shape = new QueryShape(SEARCH_ALIAS);
+        if (criteria == null) {
+            return shape;
+        }
+        if (criteria.getEmail() != null) {
+            compileStringFilter(shape, criteria.getEmail(), User_.email);
+        }
+        if (criteria.getPhone() != null) {
+            compileStringFilter(shape, criteria.getPhone(), User_.phone);
+        }
+        if (criteria.getRole() != null) {
+            compileFilter(shape, criteria.getRole(), User_.role);
+        }
+        if (criteria.getMfaType() != null) {
+            compileFilter(shape, criteria.getMfaType(), User_.mfaType);
+        }
+        if (criteria.getCreatedDate() != null) {
+            compileRangeFilter(shape, criteria.getCreatedDate(), User_.createdDate);
+        }
+        return shape;
+    }
 }
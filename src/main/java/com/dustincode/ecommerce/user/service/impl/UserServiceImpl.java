@@ -1,6 +1,7 @@
 package com.dustincode.ecommerce.user.service.impl;
 
 import com.dustincode.ecommerce.core.exceptions.BadRequestException;
+import com.dustincode.ecommerce.core.security.PasswordHasher;
 import com.dustincode.ecommerce.user.dto.ChangePasswordRequest;
 import com.dustincode.ecommerce.user.dto.ConfirmResetPasswordRequest;
 import com.dustincode.ecommerce.user.dto.RegisterRequest;
@@ -10,6 +11,7 @@ import com.dustincode.ecommerce.user.entity.UserToken;
 import com.dustincode.ecommerce.user.entity.enumerations.Role;
 import com.dustincode.ecommerce.user.repository.UserRepository;
 import com.dustincode.ecommerce.user.repository.UserTokenRepository;
+import com.dustincode.ecommerce.user.service.AuthService;
 import com.dustincode.ecommerce.user.service.UserQueryService;
 import com.dustincode.ecommerce.user.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -39,12 +41,16 @@ public class UserServiceImpl implements UserService {
 
     /** Services */
     private final UserQueryService userQueryService;
+    private final AuthService authService;
+
+    /** Others */
+    private final PasswordHasher passwordHasher;
 
     @Override
     public void createUser(RegisterRequest request) {
         log.info("Request to create new user with email '{}'", request.getEmail());
 
-        if (userRepository.existsByEmailOrPhone(request.getEmail(), request.getPhone())) {
+        if (userRepository.existsByEmail(request.getEmail()) || userRepository.existsByPhone(request.getPhone())) {
             throw new BadRequestException(USER_ALREADY_EXIST_ERR);
         }
 
@@ -52,7 +58,7 @@ public class UserServiceImpl implements UserService {
                 Role.USER,
                 request.getEmail(),
                 request.getPhone(),
-                request.getPassword(),
+                passwordHasher.encode(request.getPassword()),
                 request.getName(),
                 request.getAddress()
         ));
@@ -68,11 +74,13 @@ public class UserServiceImpl implements UserService {
                 .getUserById(userId)
                 .orElseThrow(() -> new BadRequestException(USER_NOT_FOUND_ERR));
 
-        if (user.updatePassword(request.getOldPassword(), request.getNewPassword())) {
-            log.info("Done change password for user id '{}'", userId);
+        if (!passwordHasher.matches(request.getOldPassword(), user.getPassword())) {
+            throw new BadRequestException(INVALID_USER_PASSWORD_ERR);
         }
 
-        throw new BadRequestException(INVALID_USER_PASSWORD_ERR);
+        user.updatePassword(passwordHasher.encode(request.getNewPassword()));
+        authService.revokeAllSessions(userId);
+        log.info("Done change password for user id '{}'", userId);
     }
 
     @Override
@@ -80,7 +88,10 @@ public class UserServiceImpl implements UserService {
         userQueryService
                 .getUserByEmail(email)
                 .ifPresentOrElse(
-                        User::createResetPasswordToken,
+                        user -> {
+                            userTokenRepository.deleteAllByUserIdAndType(user.getId(), RESET_PASSWORD);
+                            userTokenRepository.save(user.newResetPasswordToken());
+                        },
                         () -> { throw new BadRequestException(USER_NOT_FOUND_ERR); }
                 );
     }
@@ -91,7 +102,11 @@ public class UserServiceImpl implements UserService {
                 .findByTokenAndTypeAndChannel(request.getToken(), RESET_PASSWORD, EMAIL)
                 .map(UserToken::getUser)
                 .ifPresentOrElse(
-                        user -> user.resetPassword(request.getNewPassword()),
+                        user -> {
+                            user.updatePassword(passwordHasher.encode(request.getNewPassword()));
+                            authService.revokeAllSessions(user.getId());
+                            userTokenRepository.deleteAllByUserIdAndType(user.getId(), RESET_PASSWORD);
+                        },
                         () -> { throw new BadRequestException(INVALID_RESET_PASSWORD_TOKEN_ERR); }
                 );
     }
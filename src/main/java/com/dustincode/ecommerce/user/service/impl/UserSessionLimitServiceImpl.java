@@ -0,0 +1,81 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.user.cache.RevokedTokenRegistry;
+import com.dustincode.ecommerce.user.cache.UserSessionCache;
+import com.dustincode.ecommerce.user.repository.UserSessionRepository;
+import com.dustincode.ecommerce.user.service.UserSessionLimitService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keeps at most {@code maximumPerUser} sessions per user, the most recently created ones.
+ * <p>
+ * Run after every login, so at most one session is over the limit in steady state: the sessions beyond the limit are
+ * read from the user's index and deleted in one statement, never loading {@code User.userSessions}. Their access
+ * tokens are evicted from the session cache and revoked like on logout.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class UserSessionLimitServiceImpl implements UserSessionLimitService {
+
+    /** Upper bound of sessions evicted at once, only reached by users who had more sessions than the limit */
+    private static final int EVICTION_BATCH_SIZE = 1000;
+
+    /** Repositories */
+    private final UserSessionRepository userSessionRepository;
+
+    /** Others */
+    private final UserSessionCache userSessionCache;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final int maximumPerUser;
+    private final Counter evictions;
+
+    public UserSessionLimitServiceImpl(
+            UserSessionRepository userSessionRepository,
+            UserSessionCache userSessionCache,
+            RevokedTokenRegistry revokedTokenRegistry,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userSessionRepository = userSessionRepository;
+        this.userSessionCache = userSessionCache;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.maximumPerUser = applicationProperties.getSecurity().session().maximumPerUser();
+        if (maximumPerUser < 1) {
+            throw new IllegalStateException("application.security.session.maximum-per-user must be at least 1");
+        }
+
+        this.evictions = Counter.builder("user.sessions.evictions")
+                .description("Oldest sessions deleted because their user went over the session limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public int enforceLimit(Long userId) {
+        List<String> accessTokenIds = userSessionRepository.findAccessTokenIdsBeyond(
+                userId,
+                maximumPerUser,
+                EVICTION_BATCH_SIZE
+        );
+        if (accessTokenIds.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = userSessionRepository.deleteAllByAccessTokenIdIn(accessTokenIds);
+        accessTokenIds.forEach(accessTokenId -> {
+            userSessionCache.evict(accessTokenId);
+            revokedTokenRegistry.revoke(accessTokenId);
+        });
+        evictions.increment(deleted);
+        log.debug("Evicted {} sessions of user id '{}' over the limit of {}", deleted, userId, maximumPerUser);
+        return deleted;
+    }
+}
@@ -0,0 +1,96 @@
+package com.dustincode.ecommerce.core.configs;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.JwtProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.LoginThrottleProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.MFAProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PaginationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PasswordProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PurgeProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SecurityProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.UserImportProperties;
+import org.springframework.web.cors.CorsConfiguration;
+
+/**
+ * Builds {@link ApplicationProperties} for tests and benchmarks with only the groups they set, every other group is
+ * {@code null}. A new property group then only touches this class, not every test.
+ */
+public final class TestApplicationProperties {
+
+    private String basePortalUrl;
+    private JwtProperties jwt;
+    private MFAProperties mfa;
+    private SessionProperties session;
+    private PurgeProperties purge;
+    private PasswordProperties password;
+    private LoginThrottleProperties loginThrottle;
+    private CorsConfiguration cors;
+    private UserImportProperties userImport;
+    private PaginationProperties pagination;
+
+    private TestApplicationProperties() {}
+
+    public static TestApplicationProperties builder() {
+        return new TestApplicationProperties();
+    }
+
+    public TestApplicationProperties basePortalUrl(String basePortalUrl) {
+        this.basePortalUrl = basePortalUrl;
+        return this;
+    }
+
+    public TestApplicationProperties jwt(JwtProperties jwt) {
+        this.jwt = jwt;
+        return this;
+    }
+
+    public TestApplicationProperties mfa(MFAProperties mfa) {
+        this.mfa = mfa;
+        return this;
+    }
+
+    public TestApplicationProperties session(SessionProperties session) {
+        this.session = session;
+        return this;
+    }
+
+    public TestApplicationProperties purge(PurgeProperties purge) {
+        this.purge = purge;
+        return this;
+    }
+
+    public TestApplicationProperties password(PasswordProperties password) {
+        this.password = password;
+        return this;
+    }
+
+    public TestApplicationProperties loginThrottle(LoginThrottleProperties loginThrottle) {
+        this.loginThrottle = loginThrottle;
+        return this;
+    }
+
+    public TestApplicationProperties cors(CorsConfiguration cors) {
+        this.cors = cors;
+        return this;
+    }
+
+    public TestApplicationProperties userImport(UserImportProperties userImport) {
+        this.userImport = userImport;
+        return this;
+    }
+
+    public TestApplicationProperties pagination(PaginationProperties pagination) {
+        this.pagination = pagination;
+        return this;
+    }
+
+    public ApplicationProperties build() {
+        return new ApplicationProperties(
+                basePortalUrl,
+                new SecurityProperties(jwt, mfa, session, purge, password, loginThrottle),
+                cors,
+                userImport,
+                pagination
+        );
+    }
+}
@@ -0,0 +1,201 @@
+package com.dustincode.ecommerce.core.filters;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.RevocationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionCacheProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.exceptions.AuthenticationException;
+import com.dustincode.ecommerce.core.security.PasswordHasher;
+import com.dustincode.ecommerce.core.security.SecurityUtils;
+import com.dustincode.ecommerce.core.security.SessionMode;
+import com.dustincode.ecommerce.core.security.UserAuthentication;
+import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
+import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
+import com.dustincode.ecommerce.user.cache.LoginAttemptLimiter;
+import com.dustincode.ecommerce.user.cache.RevokedTokenRegistry;
+import com.dustincode.ecommerce.user.cache.TokenRefreshCoalescer;
+import com.dustincode.ecommerce.user.cache.UserSessionCache;
+import com.dustincode.ecommerce.user.dto.UserSessionSummary;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.UserSession;
+import com.dustincode.ecommerce.user.entity.enumerations.MFAType;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.repository.UserSessionRepository;
+import com.dustincode.ecommerce.user.service.UserQueryService;
+import com.dustincode.ecommerce.user.service.UserSessionLimitService;
+import com.dustincode.ecommerce.user.service.impl.AuthServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static com.dustincode.ecommerce.core.constant.HeaderConstants.USER_ACCESS_TOKEN_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthenticationFilterTest {
+
+    private static final String SECRET = "X85CsAp6jk0slfJ2r67b0zy8IGPK/Zx6Pi6QT9Of76zy0zGws4cEF1Gn52LAaLxC1tbgVi5hQTTEks1tjZTinQ==";
+
+    private final UserSessionRepository userSessionRepository = mock(UserSessionRepository.class);
+    private final UserQueryService userQueryService = mock(UserQueryService.class);
+    private final HandlerExceptionResolver handlerExceptionResolver = mock(HandlerExceptionResolver.class);
+
+    private JwtProvider jwtProvider;
+    private AuthServiceImpl authService;
+    private AuthenticationFilter authenticationFilter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtProvider = new JwtProvider(SECRET, 1000);
+        user = User.builder()
+                .id(1L)
+                .email("user@mailinator.com")
+                .role(Role.USER)
+                .mfaType(MFAType.NONE)
+                .userSessions(new ArrayList<>())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void setUpFilter(SessionMode sessionMode) {
+        ApplicationProperties applicationProperties = TestApplicationProperties.builder()
+                .session(new SessionProperties(
+                        sessionMode,
+                        new SessionCacheProperties(1000, Duration.ofSeconds(30), Duration.ofSeconds(5)),
+                        new RevocationProperties(1000, 0.001),
+                        Duration.ofSeconds(10),
+                        10
+                ))
+                .build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        authService = new AuthServiceImpl(
+                userSessionRepository,
+                userQueryService,
+                mock(UserSessionLimitService.class),
+                jwtProvider,
+                new UserSessionCache(applicationProperties, meterRegistry),
+                new RevokedTokenRegistry(applicationProperties, meterRegistry),
+                mock(LoginAttemptLimiter.class),
+                mock(PasswordHasher.class),
+                new TokenRefreshCoalescer(applicationProperties, meterRegistry),
+                mock(TransactionTemplate.class),
+                applicationProperties
+        );
+        authenticationFilter = new AuthenticationFilter(jwtProvider, authService, handlerExceptionResolver);
+    }
+
+    @Test
+    void revokedTokenIsRejectedOnNextRequest() throws Exception {
+        setUpFilter(SessionMode.STATEFUL);
+        GenerateJwtResult token = jwtProvider.generateTokens(user);
+        user.getUserSessions().add(UserSession.builder()
+                .user(user)
+                .accessTokenId(token.accessTokenId())
+                .refreshTokenId(token.refreshTokenId())
+                .expireTime(token.expireTime())
+                .build());
+        when(userSessionRepository.findSummaryByAccessTokenId(token.accessTokenId()))
+                .thenReturn(Optional.of(new UserSessionSummary(user.getId(), token.expireTime())))
+                .thenReturn(Optional.empty());
+        when(userQueryService.getUserById(user.getId())).thenReturn(Optional.of(user));
+
+        FilterChain acceptedChain = mock(FilterChain.class);
+        authenticationFilter.doFilter(request(token), new MockHttpServletResponse(), acceptedChain);
+        authenticationFilter.doFilter(request(token), new MockHttpServletResponse(), acceptedChain);
+
+        verify(acceptedChain, times(2)).doFilter(any(), any());
+        verify(userSessionRepository, times(1)).findSummaryByAccessTokenId(token.accessTokenId());
+
+        authService.logout(user.getId(), token.accessToken());
+
+        FilterChain rejectedChain = mock(FilterChain.class);
+        authenticationFilter.doFilter(request(token), new MockHttpServletResponse(), rejectedChain);
+
+        verify(rejectedChain, never()).doFilter(any(), any());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), isA(AuthenticationException.class));
+        verify(userSessionRepository, times(1)).findSummaryByAccessTokenId(eq(token.accessTokenId()));
+    }
+
+    @Test
+    void statelessModeRejectsTokensOfBumpedSessionVersion() throws Exception {
+        setUpFilter(SessionMode.STATELESS);
+        GenerateJwtResult token = jwtProvider.generateTokens(user);
+        when(userQueryService.getSessionVersion(user.getId()))
+                .thenReturn(Optional.of(0L))
+                .thenReturn(Optional.of(1L));
+        when(userQueryService.getUserById(user.getId())).thenReturn(Optional.of(user));
+
+        FilterChain acceptedChain = mock(FilterChain.class);
+        authenticationFilter.doFilter(request(token), new MockHttpServletResponse(), acceptedChain);
+        authenticationFilter.doFilter(request(token), new MockHttpServletResponse(), acceptedChain);
+
+        verify(acceptedChain, times(2)).doFilter(any(), any());
+        verify(userSessionRepository, never()).findSummaryByAccessTokenId(any());
+
+        authService.logoutAll(user.getId());
+
+        FilterChain rejectedChain = mock(FilterChain.class);
+        authenticationFilter.doFilter(request(token), new MockHttpServletResponse(), rejectedChain);
+
+        verify(rejectedChain, never()).doFilter(any(), any());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), isA(AuthenticationException.class));
+        verify(userQueryService, times(2)).getSessionVersion(user.getId());
+    }
+
+    @Test
+    void authenticatesWithUserContextAndSharedRoleAuthorities() throws Exception {
+        setUpFilter(SessionMode.STATEFUL);
+        GenerateJwtResult token = jwtProvider.generateTokens(user);
+        when(userSessionRepository.findSummaryByAccessTokenId(token.accessTokenId()))
+                .thenReturn(Optional.of(new UserSessionSummary(user.getId(), token.expireTime())));
+
+        FilterChain chain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            assertThat(SecurityContextHolder.getContext().getAuthentication())
+                    .isInstanceOfSatisfying(UserAuthentication.class, authentication -> {
+                        assertThat(authentication.getAuthorities()).isSameAs(Role.USER.getAuthorities());
+                        assertThat(authentication.getPrincipal()).isEqualTo(user.getId());
+                    });
+            assertThat(SecurityUtils.getUserId()).isEqualTo(user.getId());
+            assertThat(SecurityUtils.getAccessTokenId()).isEqualTo(token.accessTokenId());
+            assertThat(SecurityUtils.getEmail()).isEqualTo(user.getEmail());
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        authenticationFilter.doFilter(request(token), new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(any(), any());
+    }
+
+    private MockHttpServletRequest request(GenerateJwtResult token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader(USER_ACCESS_TOKEN_HEADER, token.accessToken());
+        return request;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dustincode.ecommerce.core.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TsidFactoryTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T00:00:00Z");
+
+    @Test
+    void idsEncodeTimeAndNode() {
+        TsidFactory factory = new TsidFactory(5, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        long id = factory.next();
+
+        assertThat(TsidFactory.timestampOf(id)).isEqualTo(NOW);
+        assertThat((id >>> TsidFactory.COUNTER_BITS) & TsidFactory.MAXIMUM_NODE).isEqualTo(5);
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheCounterOverflows() {
+        TsidFactory factory = new TsidFactory(1, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        long[] ids = IntStream.range(0, 10_000).mapToLong(i -> factory.next()).toArray();
+
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+        assertThat(TsidFactory.timestampOf(ids[ids.length - 1])).isEqualTo(NOW.plusMillis(2));
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreadsAndNodes() {
+        TsidFactory first = new TsidFactory(1, Clock.systemUTC());
+        TsidFactory second = new TsidFactory(2, Clock.systemUTC());
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add((i % 2 == 0 ? first : second).next()));
+
+        assertThat(ids).hasSize(200_000);
+    }
+
+    @Test
+    void rejectsMissingNode() {
+        assertThatThrownBy(() -> TsidFactory.forNode(null)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> TsidFactory.forNode(" ")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsNodeOutOfRange() {
+        assertThatThrownBy(() -> new TsidFactory(TsidFactory.MAXIMUM_NODE + 1, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
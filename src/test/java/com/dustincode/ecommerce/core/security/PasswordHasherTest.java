@@ -0,0 +1,127 @@
+package com.dustincode.ecommerce.core.security;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PasswordProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHasher = newPasswordHasher(Duration.ZERO, 4, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void encodedPasswordMatches() {
+        String encodedPassword = passwordHasher.encode("Password@123");
+
+        assertThat(passwordHasher.matches("Password@123", encodedPassword)).isTrue();
+        assertThat(passwordHasher.matches("Password@456", encodedPassword)).isFalse();
+        assertThat(meterRegistry.get(PasswordHasher.EXECUTOR_NAME + ".duration").tag("operation", "match").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void calibratedStrengthStaysWithinBounds() {
+        PasswordHasher slowest = newPasswordHasher(Duration.ofDays(1), 4, 6);
+        PasswordHasher fastest = newPasswordHasher(Duration.ofNanos(1), 4, 6);
+
+        assertThat(slowest.encode("Password@123")).startsWith("$2a$06$");
+        assertThat(fastest.encode("Password@123")).startsWith("$2a$04$");
+
+        slowest.shutdown();
+        fastest.shutdown();
+    }
+
+    @Test
+    void weakerHashesNeedAnUpgrade() {
+        PasswordHasher stronger = newPasswordHasher(Duration.ZERO, 5, 5);
+        String weakHash = passwordHasher.encode("Password@123");
+
+        assertThat(stronger.upgradeEncoding(weakHash)).isTrue();
+        assertThat(stronger.upgradeEncoding(stronger.encode("Password@123"))).isFalse();
+        assertThat(passwordHasher.upgradeEncoding(stronger.encode("Password@123"))).isFalse();
+
+        stronger.shutdown();
+    }
+
+    @Test
+    void encodeAllUsesTheMinimumStrengthAndKeepsTheOrder() {
+        PasswordHasher slowest = newPasswordHasher(Duration.ofDays(1), 4, 5);
+
+        List<String> encodedPasswords = slowest.encodeAll(List.of("Password@1", "Password@2", "Password@3"));
+
+        assertThat(encodedPasswords).hasSize(3).allSatisfy(encodedPassword -> {
+            assertThat(encodedPassword).startsWith("$2a$04$");
+            assertThat(slowest.isEncoded(encodedPassword)).isTrue();
+            assertThat(slowest.upgradeEncoding(encodedPassword)).isTrue();
+        });
+        assertThat(slowest.matches("Password@3", encodedPasswords.get(2))).isTrue();
+        assertThat(slowest.isEncoded("Password@3")).isFalse();
+
+        slowest.shutdown();
+    }
+
+    @Test
+    void failsFastWhenQueueIsFull() throws Exception {
+        Timer timer = meterRegistry.timer("test");
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<Boolean> blockedTask = () -> release.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHasher.submit(timer, blockedTask));
+        awaitQueued(0);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHasher.submit(timer, blockedTask));
+        awaitQueued(1);
+
+        assertThatThrownBy(() -> passwordHasher.encode("Password@123")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get(PasswordHasher.EXECUTOR_NAME + ".rejections").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private PasswordHasher newPasswordHasher(Duration targetLatency, int minStrength, int maxStrength) {
+        ApplicationProperties applicationProperties = TestApplicationProperties.builder()
+                .password(new PasswordProperties(1, 1, targetLatency, minStrength, maxStrength))
+                .build();
+        return new PasswordHasher(applicationProperties, meterRegistry);
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            double active = meterRegistry.get("executor.active").tag("name", PasswordHasher.EXECUTOR_NAME).gauge().value();
+            double queued = meterRegistry.get("executor.queued").tag("name", PasswordHasher.EXECUTOR_NAME).gauge().value();
+            if (active == 1 && queued == expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Executor did not reach " + expected + " queued task(s)");
+    }
+}
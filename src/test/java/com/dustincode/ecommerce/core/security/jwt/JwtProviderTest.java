@@ -0,0 +1,90 @@
+package com.dustincode.ecommerce.core.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtProviderTest {
+
+    private static final String SECRET = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+
+    private final AtomicLong nanos = new AtomicLong();
+    private JwtProvider jwtProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtProvider = new JwtProvider(SECRET, 100, nanos::get);
+    }
+
+    @Test
+    void verifiedTokenIsCachedUntilItsExpiration() {
+        String token = token(SECRET, "user@mailinator.com", Instant.now().plusSeconds(30));
+
+        assertThat(jwtProvider.extractClaims(token).status()).isEqualTo(CheckJwtResult.VALID);
+        assertThat(jwtProvider.isCached(token)).isTrue();
+
+        advance(Duration.ofSeconds(25));
+        assertThat(jwtProvider.isCached(token)).isTrue();
+
+        advance(Duration.ofSeconds(6));
+        assertThat(jwtProvider.isCached(token)).isFalse();
+    }
+
+    @Test
+    void expiredTokenIsNeverCached() {
+        String token = token(SECRET, "user@mailinator.com", Instant.now().minusSeconds(1));
+
+        assertThat(jwtProvider.extractClaims(token).status()).isEqualTo(CheckJwtResult.EXPIRED);
+        assertThat(jwtProvider.isCached(token)).isFalse();
+    }
+
+    @Test
+    void tamperedTokenIsNeverServedFromTheCache() {
+        Instant expiration = Instant.now().plusSeconds(30);
+        String token = token(SECRET, "user@mailinator.com", expiration);
+        String[] other = token(SECRET, "admin@mailinator.com", expiration).split("\\.");
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + other[1] + "." + parts[2];
+        assertThat(jwtProvider.extractClaims(token).status()).isEqualTo(CheckJwtResult.VALID);
+
+        assertThat(jwtProvider.extractClaims(tampered).status()).isEqualTo(CheckJwtResult.INVALID);
+        assertThat(jwtProvider.isCached(tampered)).isFalse();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsNeverCached() {
+        String otherSecret = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+        String token = token(otherSecret, "user@mailinator.com", Instant.now().plusSeconds(30));
+
+        assertThat(jwtProvider.extractClaims(token).status()).isEqualTo(CheckJwtResult.INVALID);
+        assertThat(jwtProvider.isCached(token)).isFalse();
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static String token(String secret, String subject, Instant expiration) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return Jwts.builder()
+                .setId(subject + expiration)
+                .setSubject(subject)
+                .claim("userId", 1L)
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiration))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
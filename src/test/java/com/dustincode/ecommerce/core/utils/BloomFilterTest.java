@@ -0,0 +1,49 @@
+package com.dustincode.ecommerce.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 10_000;
+    private static final double FPP = 0.01;
+
+    @Test
+    void isSizedFromInsertionsAndProbability() {
+        BloomFilter bloomFilter = new BloomFilter(1_000_000, FPP);
+
+        // m = -n ln(p) / ln(2)^2, rounded up to whole 64 bits words
+        long expectedBits = (long) Math.ceil(-1_000_000 * Math.log(FPP) / (Math.log(2) * Math.log(2)));
+        assertThat(bloomFilter.bitSize()).isBetween(expectedBits, expectedBits + 63);
+        assertThat(bloomFilter.bitSize() % 64).isZero();
+        assertThat(bloomFilter.sizeInBytes()).isEqualTo(bloomFilter.bitSize() / 8);
+        assertThat(bloomFilter.falsePositiveProbability(1_000_000)).isCloseTo(FPP, within(FPP * 0.1));
+        assertThat(bloomFilter.falsePositiveProbability(0)).isZero();
+    }
+
+    @Test
+    void neverForgetsAKey() {
+        BloomFilter bloomFilter = new BloomFilter(INSERTIONS, FPP);
+        IntStream.range(0, INSERTIONS).forEach(i -> bloomFilter.put("token-" + i));
+
+        assertThat(IntStream.range(0, INSERTIONS)).allMatch(i -> bloomFilter.mightContain("token-" + i));
+    }
+
+    @Test
+    void falsePositivesStayCloseToTheEstimate() {
+        BloomFilter bloomFilter = new BloomFilter(INSERTIONS, FPP);
+        IntStream.range(0, INSERTIONS).forEach(i -> bloomFilter.put("token-" + i));
+        int probes = 100_000;
+
+        long falsePositives = IntStream.range(0, probes)
+                .filter(i -> bloomFilter.mightContain("other-" + i))
+                .count();
+
+        assertThat((double) falsePositives / probes)
+                .isCloseTo(bloomFilter.falsePositiveProbability(INSERTIONS), within(FPP * 0.5));
+    }
+}
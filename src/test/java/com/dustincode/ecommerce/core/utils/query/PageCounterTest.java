@@ -0,0 +1,116 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PaginationProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PageCounterTest {
+
+    private static final String COUNT_SELECT = "select count(u) from User u";
+    private static final String TABLE = "t_users";
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private PageCounter pageCounter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        TypedQuery<Long> query = mock(TypedQuery.class);
+        when(query.setParameter(anyInt(), any())).thenReturn(query);
+        when(query.getSingleResult()).thenReturn(7L);
+        when(entityManager.createQuery(anyString(), eq(Long.class))).thenReturn(query);
+        pageCounter = new PageCounter(
+                entityManager,
+                jdbcTemplate,
+                mock(PlatformTransactionManager.class),
+                tasks::add,
+                TestApplicationProperties.builder()
+                        .pagination(new PaginationProperties(Duration.ofMinutes(1), Duration.ofMinutes(15), 100, 1))
+                        .build(),
+                meterRegistry,
+                (Ticker) nanos::get
+        );
+    }
+
+    @Test
+    void filteredCountsBeyondTheConcurrencyAreNotStarted() {
+        assertThat(estimate("first")).isEmpty();
+        assertThat(estimate("second")).isEmpty();
+        runTasks();
+
+        verify(entityManager, times(1)).createQuery(anyString(), eq(Long.class));
+        assertThat(meterRegistry.get(PageCounter.CACHE_NAME + ".skipped").counter().count()).isEqualTo(1);
+        assertThat(estimate("first")).contains(7L);
+
+        assertThat(estimate("second")).isEmpty();
+        runTasks();
+        assertThat(estimate("second")).contains(7L);
+    }
+
+    @Test
+    void refreshWithoutAPermitKeepsTheTotalUntilItExpires() {
+        estimate("first");
+        runTasks();
+        assertThat(estimate("first")).contains(7L);
+        estimate("second");
+
+        advance(Duration.ofMinutes(2));
+        assertThat(estimate("first")).contains(7L);
+        assertThat(meterRegistry.get(PageCounter.CACHE_NAME + ".skipped").counter().count()).isEqualTo(1);
+
+        advance(Duration.ofMinutes(14));
+        assertThat(estimate("first")).isEmpty();
+    }
+
+    @Test
+    void tableStatisticsAreReadOncePerRefresh() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(TABLE))).thenReturn(42L);
+
+        assertThat(pageCounter.count(PaginationMode.ESTIMATED, new QueryShape("u"), COUNT_SELECT, TABLE)).contains(42L);
+        assertThat(pageCounter.count(PaginationMode.ESTIMATED, new QueryShape("u"), COUNT_SELECT, TABLE)).contains(42L);
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class), eq(TABLE));
+    }
+
+    private Optional<Long> estimate(String email) {
+        QueryShape shape = new QueryShape("u").where("u.email = ?", email);
+        return pageCounter.count(PaginationMode.ESTIMATED, shape, COUNT_SELECT, TABLE);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.dustincode.ecommerce.core.utils.query;
+
+import com.dustincode.ecommerce.core.exceptions.BadRequestException;
+import com.dustincode.ecommerce.core.utils.query.filter.StringFilter;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryServiceTest {
+
+    private static final String SELECT = "select u from User u";
+
+    private final SingularAttribute<Object, String> email = attribute("email");
+    private final SingularAttribute<Object, String> phone = attribute("phone");
+    private final TestQueryService queryService = new TestQueryService();
+
+    @Test
+    void containsOnAnNgramFieldSearchesThePhraseThenTheLike() {
+        queryService.registerFullTextIndex(email, FullTextParser.NGRAM);
+        QueryShape shape = new QueryShape("u");
+
+        queryService.compileStringFilter(shape, new StringFilter().setContains("john.doe@gmail"), email);
+
+        assertThat(shape.toJpql(SELECT, null))
+                .isEqualTo(SELECT + " where match_against(u.email, ?1) > 0 and upper(u.email) like ?2");
+        assertThat(shape.getValues()).containsExactly("\"john.doe@gmail\"", "%JOHN.DOE@GMAIL%");
+    }
+
+    @Test
+    void containsOnAWordFieldSearchesTheWordsAfterTheFirstThenTheLike() {
+        queryService.registerFullTextIndex(email, FullTextParser.WORDS);
+        QueryShape shape = new QueryShape("u");
+
+        queryService.compileStringFilter(shape, new StringFilter().setContains("john.doe@gmail"), email);
+
+        assertThat(shape.toJpql(SELECT, null))
+                .isEqualTo(SELECT + " where match_against(u.email, ?1) > 0 and upper(u.email) like ?2");
+        assertThat(shape.getValues()).containsExactly("+doe +gmail*", "%JOHN.DOE@GMAIL%");
+    }
+
+    @Test
+    void containsTheIndexCannotNarrowDownIsOnlyALike() {
+        queryService.registerFullTextIndex(email, FullTextParser.NGRAM);
+        queryService.registerFullTextIndex(phone, FullTextParser.WORDS);
+
+        for (String value : List.of("j", "john doe", "john\"doe")) {
+            QueryShape shape = new QueryShape("u");
+            queryService.compileStringFilter(shape, new StringFilter().setContains(value), email);
+
+            assertThat(shape.toJpql(SELECT, null)).isEqualTo(SELECT + " where upper(u.email) like ?1");
+        }
+        for (String value : List.of("gmail", "j.d@", "o'neil.smith", "josé.smith")) {
+            QueryShape shape = new QueryShape("u");
+            queryService.compileStringFilter(shape, new StringFilter().setContains(value), phone);
+
+            assertThat(shape.toJpql(SELECT, null)).isEqualTo(SELECT + " where upper(u.phone) like ?1");
+        }
+    }
+
+    @Test
+    void containsOnAnUnregisteredFieldIsOnlyALike() {
+        queryService.registerFullTextIndex(email, FullTextParser.NGRAM);
+        QueryShape shape = new QueryShape("u");
+
+        queryService.compileStringFilter(shape, new StringFilter().setContains("0901234"), phone);
+
+        assertThat(shape.toJpql(SELECT, null)).isEqualTo(SELECT + " where upper(u.phone) like ?1");
+        assertThat(shape.getValues()).containsExactly("%0901234%");
+    }
+
+    @Test
+    void inListIsBoundAsScalarsPaddedToAPowerOfTwo() {
+        QueryShape shape = new QueryShape("u");
+
+        queryService.compileStringFilter(shape, (StringFilter) new StringFilter().setIn(List.of("a", "b", "c")), email);
+        queryService.compileStringFilter(shape, (StringFilter) new StringFilter().setNotIn(List.of("d")), phone);
+
+        assertThat(shape.toJpql(SELECT, null))
+                .isEqualTo(SELECT + " where u.email in (?1, ?2, ?3, ?4) and u.phone not in (?5)");
+        assertThat(shape.getValues()).containsExactly("a", "b", "c", "c", "d");
+    }
+
+    @Test
+    void inListLongerThanTheMaximumIsRejected() {
+        List<String> values = Collections.nCopies(QueryService.MAX_IN_SIZE + 1, "a");
+
+        queryService.compileStringFilter(new QueryShape("u"), (StringFilter) new StringFilter().setIn(values.subList(1, values.size())), email);
+        assertThatThrownBy(() -> queryService.compileStringFilter(new QueryShape("u"), (StringFilter) new StringFilter().setIn(values), email))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> queryService.compileStringFilter(new QueryShape("u"), (StringFilter) new StringFilter().setNotIn(values), email))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SingularAttribute<Object, String> attribute(String name) {
+        SingularAttribute<Object, String> attribute = mock(SingularAttribute.class);
+        when(attribute.getName()).thenReturn(name);
+        return attribute;
+    }
+
+    static final class TestQueryService extends QueryService<Object> {
+    }
+}
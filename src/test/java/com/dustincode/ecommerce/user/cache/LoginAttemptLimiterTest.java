@@ -0,0 +1,85 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.LoginThrottleProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.user.cache.LoginAttemptLimiter.Scope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAttemptLimiterTest {
+
+    private static final int IDENTIFIER_CAPACITY = 3;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = TestApplicationProperties.builder()
+                .loginThrottle(new LoginThrottleProperties(
+                        IDENTIFIER_CAPACITY,
+                        10,
+                        Duration.ofMinutes(1),
+                        1000,
+                        Duration.ofSeconds(30)
+                ))
+                .build();
+        limiter = new LoginAttemptLimiter(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void keysAreNormalizedAndScoped() {
+        assertThat(limiter.key(Scope.IDENTIFIER, " User@Mailinator.com")).isEqualTo(limiter.key(Scope.IDENTIFIER, "user@mailinator.com"));
+        assertThat(limiter.key(Scope.IDENTIFIER, "127.0.0.1")).isNotEqualTo(limiter.key(Scope.IP, "127.0.0.1"));
+    }
+
+    @Test
+    void rejectsOnceTheBucketIsEmpty() {
+        long key = limiter.key(Scope.IDENTIFIER, "user@mailinator.com");
+
+        IntStream.range(0, IDENTIFIER_CAPACITY).forEach(i -> assertThat(limiter.tryAcquire(Scope.IDENTIFIER, key)).isTrue());
+
+        assertThat(limiter.isExhausted(Scope.IDENTIFIER, key)).isTrue();
+        assertThat(limiter.tryAcquire(Scope.IDENTIFIER, key)).isFalse();
+        assertThat(meterRegistry.get(LoginAttemptLimiter.CACHE_NAME + ".rejections").tag("scope", "identifier").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void releasedAndResetAttemptsCanBeUsedAgain() {
+        long key = limiter.key(Scope.IDENTIFIER, "user@mailinator.com");
+        IntStream.range(0, IDENTIFIER_CAPACITY).forEach(i -> limiter.tryAcquire(Scope.IDENTIFIER, key));
+
+        limiter.release(Scope.IDENTIFIER, key);
+        assertThat(limiter.tryAcquire(Scope.IDENTIFIER, key)).isTrue();
+        assertThat(limiter.tryAcquire(Scope.IDENTIFIER, key)).isFalse();
+
+        limiter.reset(key);
+        assertThat(limiter.tryAcquire(Scope.IDENTIFIER, key)).isTrue();
+    }
+
+    @Test
+    void lockoutsAreDrainedOnceAndCanBeRestored() {
+        long key = limiter.key(Scope.IDENTIFIER, "user@mailinator.com");
+        IntStream.range(0, IDENTIFIER_CAPACITY).forEach(i -> limiter.tryAcquire(Scope.IDENTIFIER, key));
+
+        Map<Long, Instant> lockouts = limiter.drainLockouts();
+        assertThat(lockouts).containsOnlyKeys(key);
+        assertThat(limiter.drainLockouts()).isEmpty();
+
+        limiter.reset(key);
+        limiter.restore(key, lockouts.get(key));
+        assertThat(limiter.tryAcquire(Scope.IDENTIFIER, key)).isFalse();
+        assertThat(limiter.drainLockouts()).isEmpty();
+    }
+}
@@ -0,0 +1,132 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.RevocationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenRegistryTest {
+
+    private static final Duration GENERATION_LIFETIME = Duration.ofMinutes(JwtProvider.ACCESS_TOKEN_IN_MINUTES);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-10-17T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void onlyRevokedTokensAreRejected() {
+        RevokedTokenRegistry registry = registry(1000, 0.001);
+
+        registry.revoke("revoked");
+
+        assertThat(registry.isRevoked("revoked")).isTrue();
+        assertThat(registry.isRevoked("live")).isFalse();
+        assertThat(registry.isRevoked(null)).isFalse();
+        assertThat(meterRegistry.get("user.sessions.revocation.rejections").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void revocationOutlivesOneRotationAndExpiresWithTheNext() {
+        RevokedTokenRegistry registry = registry(1000, 0.001);
+        registry.revoke("revoked");
+
+        clock.advance(GENERATION_LIFETIME);
+        assertThat(registry.isRevoked("revoked")).isTrue();
+        assertThat(meterRegistry.get("user.sessions.revocation.size").gauge().value()).isEqualTo(1);
+
+        clock.advance(GENERATION_LIFETIME);
+        assertThat(registry.isRevoked("revoked")).isFalse();
+        assertThat(meterRegistry.get("user.sessions.revocation.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void revocationsAfterARotationGoToTheNewGeneration() {
+        RevokedTokenRegistry registry = registry(1000, 0.001);
+        registry.revoke("first");
+        clock.advance(GENERATION_LIFETIME);
+        registry.revoke("second");
+
+        clock.advance(GENERATION_LIFETIME);
+
+        assertThat(registry.isRevoked("first")).isFalse();
+        assertThat(registry.isRevoked("second")).isTrue();
+    }
+
+    @Test
+    void memoryPerMillionCountsTheExactSets() {
+        RevokedTokenRegistry registry = registry(1000, 0.001);
+        assertThat(meterRegistry.get("user.sessions.revocation.bytes-per-million").gauge().value()).isNaN();
+
+        // 40 bytes of set entry, 40 of String and 20 characters rounded up to 24
+        IntStream.range(0, 10).forEach(i -> registry.revoke("revoked-token-id-" + (100 + i)));
+        registry.revoke("revoked-token-id-100");
+
+        assertThat(meterRegistry.get("user.sessions.revocation.exact.bytes").gauge().value()).isEqualTo(10 * 104);
+        assertThat(meterRegistry.get("user.sessions.revocation.bytes-per-million").gauge().value())
+                .isEqualTo(meterRegistry.get("user.sessions.revocation.bloom.bytes-per-million").gauge().value() + 104_000_000);
+    }
+
+    @Test
+    void bloomFalsePositivesNeverRejectALiveToken() {
+        RevokedTokenRegistry registry = registry(1, 0.5);
+        IntStream.range(0, 100).forEach(i -> registry.revoke("revoked-" + i));
+
+        assertThat(IntStream.range(0, 1000)).noneMatch(i -> registry.isRevoked("live-" + i));
+        assertThat(meterRegistry.get("user.sessions.revocation.bloom.false-positives").counter().count()).isPositive();
+        assertThat(meterRegistry.get("user.sessions.revocation.bloom.fpp").gauge().value()).isGreaterThan(0.5);
+    }
+
+    private RevokedTokenRegistry registry(long expectedRevocations, double falsePositiveProbability) {
+        return new RevokedTokenRegistry(
+                TestApplicationProperties.builder()
+                        .session(new SessionProperties(
+                                null,
+                                null,
+                                new RevocationProperties(expectedRevocations, falsePositiveProbability),
+                                null,
+                                0
+                        ))
+                        .build(),
+                meterRegistry,
+                clock
+        );
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.exceptions.AuthenticationException;
+import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.dustincode.ecommerce.core.constant.MessageConstant.INVALID_REFRESH_TOKEN_ERR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenRefreshCoalescerTest {
+
+    private static final String REFRESH_TOKEN_ID = "refresh";
+    private static final String ACCESS_TOKEN_ID = "access";
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRefreshCoalescer coalescer;
+    private AtomicInteger refreshes;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = TestApplicationProperties.builder()
+                .session(new SessionProperties(null, null, null, Duration.ofSeconds(10), 10))
+                .build();
+        coalescer = new TokenRefreshCoalescer(applicationProperties, meterRegistry);
+        refreshes = new AtomicInteger();
+    }
+
+    @Test
+    void concurrentRefreshesShareOneResult() throws Exception {
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<GenerateJwtResult> first = CompletableFuture.supplyAsync(() -> coalescer.refresh(
+                REFRESH_TOKEN_ID,
+                ACCESS_TOKEN_ID,
+                () -> {
+                    refreshing.countDown();
+                    await(release);
+                    return newPair();
+                }
+        ));
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<GenerateJwtResult> second = CompletableFuture.supplyAsync(
+                () -> coalescer.refresh(REFRESH_TOKEN_ID, ACCESS_TOKEN_ID, this::newPair)
+        );
+
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        assertThat(refreshes).hasValue(1);
+    }
+
+    @Test
+    void lateDuplicateGetsTheSamePair() {
+        GenerateJwtResult first = coalescer.refresh(REFRESH_TOKEN_ID, ACCESS_TOKEN_ID, this::newPair);
+        GenerateJwtResult duplicate = coalescer.refresh(REFRESH_TOKEN_ID, ACCESS_TOKEN_ID, this::newPair);
+
+        assertThat(duplicate).isSameAs(first);
+        assertThat(refreshes).hasValue(1);
+        assertThat(meterRegistry.get("user.sessions.refresh.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void anotherAccessTokenIsNotCoalesced() {
+        GenerateJwtResult first = coalescer.refresh(REFRESH_TOKEN_ID, ACCESS_TOKEN_ID, this::newPair);
+        GenerateJwtResult next = coalescer.refresh(REFRESH_TOKEN_ID, first.accessTokenId(), this::newPair);
+
+        assertThat(next).isNotSameAs(first);
+        assertThat(refreshes).hasValue(2);
+    }
+
+    @Test
+    void failedRefreshIsNotShared() {
+        Supplier<GenerateJwtResult> failing = () -> {
+            throw new AuthenticationException(INVALID_REFRESH_TOKEN_ERR);
+        };
+
+        assertThatThrownBy(() -> coalescer.refresh(REFRESH_TOKEN_ID, ACCESS_TOKEN_ID, failing))
+                .isInstanceOf(AuthenticationException.class);
+
+        assertThat(coalescer.refresh(REFRESH_TOKEN_ID, ACCESS_TOKEN_ID, this::newPair)).isNotNull();
+        assertThat(refreshes).hasValue(1);
+    }
+
+    private GenerateJwtResult newPair() {
+        int refresh = refreshes.incrementAndGet();
+        return new GenerateJwtResult(
+                "access-" + refresh,
+                REFRESH_TOKEN_ID,
+                "access-token-" + refresh,
+                "refresh-token",
+                Instant.now().plusSeconds(3600)
+        );
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.dustincode.ecommerce.user.cache;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionCacheProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.SessionProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.security.SessionMode;
+import com.dustincode.ecommerce.core.utils.DateUtils;
+import com.dustincode.ecommerce.user.dto.UserSessionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSessionCacheTest {
+
+    private static final String ACCESS_TOKEN_ID = "access";
+
+    private UserSessionCache userSessionCache;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = TestApplicationProperties.builder()
+                .session(new SessionProperties(
+                        SessionMode.STATEFUL,
+                        new SessionCacheProperties(1000, Duration.ofSeconds(30), Duration.ofSeconds(5)),
+                        null,
+                        Duration.ofSeconds(10),
+                        10
+                ))
+                .build();
+        userSessionCache = new UserSessionCache(applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void concurrentLookupsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> userSessionCache.isValid(ACCESS_TOKEN_ID, key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return Optional.of(new UserSessionSummary(1L, DateUtils.currentInstant().plusSeconds(60)));
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> userSessionCache.isValid(ACCESS_TOKEN_ID, key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }));
+
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictionDoesNotWaitForARunningLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> lookup = CompletableFuture.supplyAsync(() -> userSessionCache.isValid(ACCESS_TOKEN_ID, key -> {
+            loading.countDown();
+            await(release);
+            return Optional.of(new UserSessionSummary(1L, DateUtils.currentInstant().plusSeconds(60)));
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture.runAsync(() -> userSessionCache.evict(ACCESS_TOKEN_ID)).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(lookup.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(userSessionCache.isValid(ACCESS_TOKEN_ID, key -> Optional.empty())).isFalse();
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThatThrownBy(() -> userSessionCache.isValid(ACCESS_TOKEN_ID, key -> {
+            throw new IllegalStateException("database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(userSessionCache.isValid(
+                ACCESS_TOKEN_ID,
+                key -> Optional.of(new UserSessionSummary(1L, DateUtils.currentInstant().plusSeconds(60)))
+        )).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.dustincode.ecommerce.user.repository;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PaginationProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.utils.DateUtils;
+import com.dustincode.ecommerce.core.utils.query.PageCounter;
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.user.dto.UserCriteria;
+import com.dustincode.ecommerce.user.dto.UserCursor;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.entity.enumerations.TokenChannel;
+import com.dustincode.ecommerce.user.entity.enumerations.TokenType;
+import com.dustincode.ecommerce.user.service.impl.UserQueryServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on MariaDB for the SQL every hot repository query sends, with the values it binds, and fails as soon as
+ * one of them reads a whole table or stops using its index.
+ * <p>
+ * Needs Docker for the MariaDB container and is skipped without it, {@code mvn test -DexcludedGroups=mariadb} leaves it
+ * out of offline builds. The tables are seeded past the size where MariaDB prefers a scan over an index.
+ */
+@Tag("mariadb")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanRegressionTest.ExplainConfiguration.class)
+class QueryPlanRegressionTest {
+
+    private static final int FILLER_ROWS = 200;
+    private static final int USER_SESSIONS = 20;
+    private static final long FILLER_USER_ID = 1_000;
+    private static final List<String> FULL_SCANS = List.of("ALL", "index");
+
+    @Container
+    private static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:10.11");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private UserTokenRepository userTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driver-class-name", MARIADB::getDriverClassName);
+        registry.add("spring.datasource.url", MARIADB::getJdbcUrl);
+        registry.add("spring.datasource.username", MARIADB::getUsername);
+        registry.add("spring.datasource.password", MARIADB::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.saveAndFlush(new User(Role.USER, "plan@mailinator.com", "+84900000090", "password", "Plan", "Address"));
+        Timestamp future = Timestamp.from(DateUtils.currentInstant().plus(Duration.ofDays(1)));
+        Timestamp now = Timestamp.from(DateUtils.currentInstant());
+
+        jdbcTemplate.batchUpdate(
+                "insert into t_users (id, email, phone, password, role, mfa_type, session_version, created_date) "
+                        + "values (?, ?, ?, 'password', 'USER', 'NONE', 0, ?)",
+                IntStream.range(0, FILLER_ROWS)
+                        .mapToObj(i -> new Object[]{FILLER_USER_ID + i, "filler" + i + "@mailinator.com", "+8491" + i, now})
+                        .toList()
+        );
+        jdbcTemplate.batchUpdate(
+                "insert into t_user_details (id, name, address, fk_user_id) values (?, 'Filler', 'Address', ?)",
+                IntStream.range(0, FILLER_ROWS)
+                        .mapToObj(i -> new Object[]{FILLER_USER_ID + i, FILLER_USER_ID + i})
+                        .toList()
+        );
+        jdbcTemplate.batchUpdate(
+                "insert into t_user_sessions (id, access_token_id, refresh_token_id, expire_time, fk_user_id) values (?, ?, ?, ?, ?)",
+                IntStream.range(0, FILLER_ROWS + USER_SESSIONS)
+                        .mapToObj(i -> i < USER_SESSIONS
+                                ? new Object[]{FILLER_USER_ID + i, i == 0 ? "access" : "access" + i, i == 0 ? "refresh" : "refresh" + i, future, user.getId()}
+                                : new Object[]{FILLER_USER_ID + i, "filler" + i, "filler" + i, future, FILLER_USER_ID})
+                        .toList()
+        );
+        jdbcTemplate.batchUpdate(
+                "insert into t_user_tokens (id, token_type, token_channel, token_value, token_expire_time, fk_user_id) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, FILLER_ROWS + 1)
+                        .mapToObj(i -> i == 0
+                                ? new Object[]{FILLER_USER_ID, TokenType.RESET_PASSWORD.name(), TokenChannel.EMAIL.name(), "token", future, user.getId()}
+                                : new Object[]{FILLER_USER_ID + i, TokenType.RESET_PASSWORD.name(), TokenChannel.EMAIL.name(), "filler" + i, future, FILLER_USER_ID})
+                        .toList()
+        );
+        entityManager.clear();
+    }
+
+    @Test
+    void findByEmailUsesEmailIndex() {
+        assertUsesIndex(() -> userRepository.findByEmail(user.getEmail()), "ux_users_email");
+    }
+
+    @Test
+    void findByPhoneUsesPhoneIndex() {
+        assertUsesIndex(() -> userRepository.findByPhone(user.getPhone()), "ux_users_phone");
+    }
+
+    @Test
+    void existsByEmailUsesEmailIndex() {
+        assertUsesIndex(() -> userRepository.existsByEmail(user.getEmail()), "ux_users_email");
+    }
+
+    @Test
+    void existsByPhoneUsesPhoneIndex() {
+        assertUsesIndex(() -> userRepository.existsByPhone(user.getPhone()), "ux_users_phone");
+    }
+
+    @Test
+    void existsByPhoneAndIdIsNotUsesPhoneIndex() {
+        assertUsesIndex(() -> userRepository.existsByPhoneAndIdIsNot(user.getPhone(), FILLER_USER_ID), "ux_users_phone");
+    }
+
+    @Test
+    void findSessionVersionByIdUsesPrimaryKey() {
+        assertUsesIndex(() -> userRepository.findSessionVersionById(user.getId()), "PRIMARY");
+    }
+
+    @Test
+    void searchPageAfterCursorUsesCreatedDateIndex() {
+        PageCounter pageCounter = new PageCounter(
+                entityManager,
+                jdbcTemplate,
+                transactionManager,
+                Runnable::run,
+                TestApplicationProperties.builder()
+                        .pagination(new PaginationProperties(Duration.ofMinutes(1), Duration.ofMinutes(15), 100, 2))
+                        .build(),
+                new SimpleMeterRegistry()
+        );
+        UserQueryServiceImpl userQueryService = new UserQueryServiceImpl(userRepository, entityManager, pageCounter);
+        Instant cursor = DateUtils.currentInstant().minus(Duration.ofDays(1));
+        assertUsesIndex(
+                () -> userQueryService.findByCriteria(new UserCriteria(), new UserCursor(cursor, Long.MAX_VALUE), 20, PaginationMode.SLICE),
+                "idx_users_created_date_id"
+        );
+    }
+
+    @Test
+    void existsByAccessTokenIdUsesAccessTokenIndex() {
+        assertUsesIndex(() -> userSessionRepository.existsByAccessTokenId("access"), "ux_user_sessions_access_token_id");
+    }
+
+    @Test
+    void findRefreshByAccessTokenIdAndRefreshTokenIdUsesAccessTokenIndex() {
+        assertUsesIndex(
+                () -> userSessionRepository.findRefreshByAccessTokenIdAndRefreshTokenId("access", "refresh"),
+                "ux_user_sessions_access_token_id"
+        );
+    }
+
+    @Test
+    void rotateAccessTokenUsesAccessTokenIndexOrPrimaryKey() {
+        Instant now = DateUtils.currentInstant();
+        assertUsesIndex(
+                () -> userSessionRepository.rotateAccessToken(FILLER_USER_ID, "access", "next", now, now),
+                "ux_user_sessions_access_token_id", "PRIMARY"
+        );
+    }
+
+    @Test
+    void findSummaryByAccessTokenIdUsesAccessTokenIndex() {
+        assertUsesIndex(() -> userSessionRepository.findSummaryByAccessTokenId("access"), "ux_user_sessions_access_token_id");
+    }
+
+    @Test
+    void deleteByAccessTokenIdUsesAccessTokenIndex() {
+        assertUsesIndex(() -> userSessionRepository.deleteByAccessTokenId("access"), "ux_user_sessions_access_token_id");
+    }
+
+    @Test
+    void deleteByAccessTokenIdAndUserIdUsesAccessTokenIndex() {
+        assertUsesIndex(
+                () -> userSessionRepository.deleteByAccessTokenIdAndUserId("access", user.getId()),
+                "ux_user_sessions_access_token_id"
+        );
+    }
+
+    @Test
+    void deleteAllSessionsByUserIdUsesUserForeignKeyIndex() {
+        assertUsesIndex(() -> userSessionRepository.deleteAllByUserId(user.getId()), "fk_user_session_userId");
+    }
+
+    @Test
+    void findAccessTokenIdsBeyondUsesUserForeignKeyIndex() {
+        assertUsesIndex(() -> userSessionRepository.findAccessTokenIdsBeyond(user.getId(), 10, 1000), "fk_user_session_userId");
+    }
+
+    @Test
+    void deleteAllByAccessTokenIdInUsesAccessTokenIndex() {
+        assertUsesIndex(
+                () -> userSessionRepository.deleteAllByAccessTokenIdIn(List.of("access", "access1")),
+                "ux_user_sessions_access_token_id"
+        );
+    }
+
+    @Test
+    void deleteExpiredSessionsUsesExpireTimeIndex() {
+        assertUsesIndex(
+                () -> userSessionRepository.deleteExpired(DateUtils.currentInstant(), 1000),
+                "idx_user_sessions_expire_time"
+        );
+    }
+
+    @Test
+    void findByTokenAndTypeAndChannelUsesTokenIndex() {
+        assertUsesIndex(
+                () -> userTokenRepository.findByTokenAndTypeAndChannel("token", TokenType.RESET_PASSWORD, TokenChannel.EMAIL),
+                "idx_user_tokens_token_value_type_channel"
+        );
+    }
+
+    @Test
+    void deleteAllTokensByUserIdAndTypeUsesUserForeignKeyIndex() {
+        assertUsesIndex(
+                () -> userTokenRepository.deleteAllByUserIdAndType(user.getId(), TokenType.RESET_PASSWORD),
+                "fk_user_tokens_userId"
+        );
+    }
+
+    @Test
+    void deleteExpiredTokensUsesExpireTimeIndex() {
+        assertUsesIndex(
+                () -> userTokenRepository.deleteExpired(DateUtils.currentInstant(), 1000),
+                "idx_user_tokens_token_expire_time"
+        );
+    }
+
+    private void assertUsesIndex(Runnable query, String... indexNames) {
+        ExplainRecorder.PLANS.clear();
+        ExplainRecorder.recording = true;
+        try {
+            query.run();
+        } finally {
+            ExplainRecorder.recording = false;
+        }
+        List<Plan> plans = List.copyOf(ExplainRecorder.PLANS);
+        assertThat(plans).isNotEmpty();
+        plans.forEach(plan -> {
+            assertThat(plan.rows()).as(plan.sql()).noneMatch(row -> FULL_SCANS.contains(row.type()));
+            assertThat(plan.rows()).as(plan.sql())
+                    .anyMatch(row -> Arrays.stream(indexNames).anyMatch(indexName -> indexName.equalsIgnoreCase(row.key())));
+        });
+    }
+
+    record Plan(String sql, List<PlanRow> rows) {}
+
+    record PlanRow(String table, String type, String key) {}
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class ExplainConfiguration {
+
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? ExplainRecorder.dataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Wraps the DataSource down to its prepared statements, which keep the parameters set on them, so that while
+     * recording each execution first runs EXPLAIN on the same connection with the same values.
+     */
+    static final class ExplainRecorder {
+
+        static final List<Plan> PLANS = new CopyOnWriteArrayList<>();
+        static volatile boolean recording;
+
+        private ExplainRecorder() {}
+
+        static DataSource dataSource(DataSource dataSource) {
+            Class<?>[] interfaces = dataSource instanceof Closeable
+                    ? new Class<?>[]{DataSource.class, Closeable.class}
+                    : new Class<?>[]{DataSource.class};
+            return (DataSource) Proxy.newProxyInstance(ExplainRecorder.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+                Object result = invoke(dataSource, method, args);
+                return result instanceof Connection connection ? connection(connection) : result;
+            });
+        }
+
+        private static Connection connection(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return "prepareStatement".equals(method.getName()) && result instanceof PreparedStatement statement
+                        ? statement(connection, (String) args[0], statement)
+                        : result;
+            });
+        }
+
+        private static PreparedStatement statement(Connection connection, String sql, PreparedStatement statement) {
+            List<Object[]> parameters = new ArrayList<>();
+            List<Method> setters = new ArrayList<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+                    setters.add(method);
+                    parameters.add(args);
+                } else if ("clearParameters".equals(method.getName())) {
+                    setters.clear();
+                    parameters.clear();
+                } else if (recording && method.getName().startsWith("execute")) {
+                    PLANS.add(explain(connection, sql, setters, parameters));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static Plan explain(Connection connection, String sql, List<Method> setters, List<Object[]> parameters)
+                throws Throwable {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < setters.size(); i++) {
+                    invoke(explain, setters.get(i), parameters.get(i));
+                }
+                List<PlanRow> rows = new ArrayList<>();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.add(new PlanRow(resultSet.getString("table"), resultSet.getString("type"), resultSet.getString("key")));
+                    }
+                }
+                return new Plan(sql, rows);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(ExplainRecorder.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dustincode.ecommerce.user.repository;
+
+import com.dustincode.ecommerce.core.security.SecurityUtils;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.UserSession;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserSessionRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void insertsAreBatched() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        User user = userRepository.save(new User(Role.USER, "batch@mailinator.com", "+84900000001", "Password@123", "Name", "Address"));
+        List<UserSession> sessions = userSessionRepository.saveAll(IntStream.range(0, 50)
+                .mapToObj(i -> user.newUserSession(
+                        SecurityUtils.generateRandomCode(),
+                        SecurityUtils.generateRandomCode(),
+                        Instant.now().plusSeconds(3600)
+                ))
+                .toList());
+        entityManager.flush();
+
+        // One statement per table, the 50 sessions go through a single statement in batches instead of 50 inserts
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(sessions).allSatisfy(session -> assertThat(session.getId()).isNotNull());
+    }
+}
@@ -0,0 +1,291 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.exceptions.AuthenticationException;
+import com.dustincode.ecommerce.core.exceptions.ServiceUnavailableException;
+import com.dustincode.ecommerce.core.exceptions.TooManyRequestsException;
+import com.dustincode.ecommerce.core.security.jwt.CheckJwtResult;
+import com.dustincode.ecommerce.core.security.jwt.ExtractJwtResult;
+import com.dustincode.ecommerce.core.security.jwt.GenerateJwtResult;
+import com.dustincode.ecommerce.core.security.jwt.JwtProvider;
+import com.dustincode.ecommerce.core.security.PasswordHasher;
+import com.dustincode.ecommerce.core.security.SecurityUtils;
+import com.dustincode.ecommerce.core.utils.query.PageCounter;
+import com.dustincode.ecommerce.user.cache.LoginAttemptLimiter;
+import com.dustincode.ecommerce.user.cache.LoginAttemptLimiter.Scope;
+import com.dustincode.ecommerce.user.cache.RevokedTokenRegistry;
+import com.dustincode.ecommerce.user.cache.TokenRefreshCoalescer;
+import com.dustincode.ecommerce.user.cache.UserSessionCache;
+import com.dustincode.ecommerce.user.dto.LoginRequest;
+import com.dustincode.ecommerce.user.dto.UserSessionRefresh;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.UserSession;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.repository.UserRepository;
+import com.dustincode.ecommerce.user.repository.UserSessionRepository;
+import com.dustincode.ecommerce.user.service.AuthService;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.dustincode.ecommerce.core.constant.MessageConstant.PASSWORD_HASHING_BUSY_ERR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+        AuthServiceImpl.class,
+        UserQueryServiceImpl.class,
+        UserSessionLimitServiceImpl.class,
+        TokenRefreshCoalescer.class,
+        SimpleMeterRegistry.class
+})
+class AuthServiceImplTest {
+
+    private static final String ACCESS_TOKEN = "access-token";
+    private static final String REFRESH_TOKEN = "refresh-token";
+
+    @MockBean
+    private JwtProvider jwtProvider;
+
+    @MockBean
+    private UserSessionCache userSessionCache;
+
+    @MockBean
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @MockBean
+    private PasswordHasher passwordHasher;
+
+    @MockBean
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @MockBean
+    private PageCounter pageCounter;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @Test
+    void logoutCostDoesNotDependOnSessionCount() {
+        UserSession lightSession = persistUserWithSessions("light@mailinator.com", "+84900000001", 1);
+        UserSession heavySession = persistUserWithSessions("heavy@mailinator.com", "+84900000002", 500);
+
+        long lightStatements = countStatements(() -> logout(lightSession));
+        long heavyStatements = countStatements(() -> logout(heavySession));
+
+        assertThat(lightStatements).isEqualTo(1);
+        assertThat(heavyStatements).isEqualTo(lightStatements);
+        assertThat(userSessionRepository.existsByAccessTokenId(heavySession.getAccessTokenId())).isFalse();
+    }
+
+    @Test
+    void refreshCostDoesNotDependOnSessionCount() {
+        UserSession lightSession = persistUserWithSessions("light@mailinator.com", "+84900000001", 1);
+        UserSession heavySession = persistUserWithSessions("heavy@mailinator.com", "+84900000002", 500);
+
+        long lightStatements = countStatements(() -> refresh(lightSession));
+        long heavyStatements = countStatements(() -> refresh(heavySession));
+
+        assertThat(heavyStatements).isEqualTo(lightStatements);
+        assertThat(userSessionRepository.existsByAccessTokenId(heavySession.getAccessTokenId())).isFalse();
+    }
+
+    @Test
+    void refreshRotatesTheSessionInPlace() {
+        UserSession session = persistUserWithSessions("rotate@mailinator.com", "+84900000004", 1);
+
+        long statements = countStatements(() -> refresh(session));
+
+        assertThat(statements).isEqualTo(2);
+        UserSession rotated = userSessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(rotated.getAccessTokenId()).isNotEqualTo(session.getAccessTokenId());
+        assertThat(rotated.getRefreshTokenId()).isEqualTo(session.getRefreshTokenId());
+        assertThat(userSessionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void revokingAllSessionsDoesNotDependOnSessionCount() {
+        UserSession lightSession = persistUserWithSessions("light@mailinator.com", "+84900000001", 1);
+        UserSession heavySession = persistUserWithSessions("heavy@mailinator.com", "+84900000002", 500);
+
+        long lightStatements = countStatements(() -> authService.logoutAll(lightSession.getUser().getId()));
+        long heavyStatements = countStatements(() -> authService.logoutAll(heavySession.getUser().getId()));
+
+        assertThat(heavyStatements).isEqualTo(lightStatements);
+        assertThat(userSessionRepository.existsByAccessTokenId(heavySession.getAccessTokenId())).isFalse();
+        assertThat(userRepository.findSessionVersionById(heavySession.getUser().getId())).contains(1L);
+    }
+
+    @Test
+    void loginUpgradesWeakPasswordHash() {
+        User user = persistUserWithSessions("weak@mailinator.com", "+84900000003", 1).getUser();
+        when(loginAttemptLimiter.tryAcquire(any(), anyLong())).thenReturn(true);
+        when(passwordHasher.matches("Password@123", user.getPassword())).thenReturn(true);
+        when(passwordHasher.upgradeEncoding(user.getPassword())).thenReturn(true);
+        when(passwordHasher.encode("Password@123")).thenReturn("stronger-hash");
+        when(jwtProvider.generateTokens(any(User.class))).thenReturn(new GenerateJwtResult(
+                SecurityUtils.generateRandomCode(),
+                SecurityUtils.generateRandomCode(),
+                ACCESS_TOKEN,
+                REFRESH_TOKEN,
+                Instant.now().plusSeconds(3600)
+        ));
+
+        authService.login(LoginRequest.builder().email(user.getEmail()).password("Password@123").build(), "127.0.0.1");
+        entityManager.flush();
+        entityManager.clear();
+
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(reloaded.getPassword()).isEqualTo("stronger-hash");
+        assertThat(reloaded.getSessionVersion()).isZero();
+    }
+
+    @Test
+    void loginOverTheSessionLimitEvictsTheOldestSession() {
+        UserSession oldest = persistSessions("capped@mailinator.com", "+84900000005", 10).get(0);
+        User user = oldest.getUser();
+        when(loginAttemptLimiter.tryAcquire(any(), anyLong())).thenReturn(true);
+        when(passwordHasher.matches("Password@123", user.getPassword())).thenReturn(true);
+        when(jwtProvider.generateTokens(any(User.class))).thenReturn(new GenerateJwtResult(
+                SecurityUtils.generateRandomCode(),
+                SecurityUtils.generateRandomCode(),
+                ACCESS_TOKEN,
+                REFRESH_TOKEN,
+                Instant.now().plusSeconds(3600)
+        ));
+
+        authService.login(LoginRequest.builder().email(user.getEmail()).password("Password@123").build(), "127.0.0.1");
+        entityManager.flush();
+
+        assertThat(userSessionRepository.existsByAccessTokenId(oldest.getAccessTokenId())).isFalse();
+        assertThat(userSessionRepository.findAccessTokenIdsBeyond(user.getId(), 0, 100)).hasSize(10);
+        verify(userSessionCache).evict(oldest.getAccessTokenId());
+        verify(revokedTokenRegistry).revoke(oldest.getAccessTokenId());
+        assertThat(meterRegistry.get("user.sessions.evictions").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void throttledLoginIsRejectedBeforeTheUserLookup() {
+        when(loginAttemptLimiter.tryAcquire(any(), anyLong())).thenReturn(false);
+        LoginRequest request = LoginRequest.builder().email("throttled@mailinator.com").password("Password@123").build();
+
+        long statements = countStatements(() -> assertThatThrownBy(() -> authService.login(request, "127.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class));
+
+        assertThat(statements).isZero();
+        verifyNoInteractions(passwordHasher);
+    }
+
+    @Test
+    void busyPasswordHasherGivesBackTheAttempts() {
+        User user = persistUserWithSessions("busy@mailinator.com", "+84900000006", 1).getUser();
+        when(loginAttemptLimiter.tryAcquire(any(), anyLong())).thenReturn(true);
+        when(passwordHasher.matches("Password@123", user.getPassword()))
+                .thenThrow(new ServiceUnavailableException(PASSWORD_HASHING_BUSY_ERR));
+        LoginRequest request = LoginRequest.builder().email(user.getEmail()).password("Password@123").build();
+
+        assertThatThrownBy(() -> authService.login(request, "127.0.0.1")).isInstanceOf(ServiceUnavailableException.class);
+
+        verify(loginAttemptLimiter).release(eq(Scope.IDENTIFIER), anyLong());
+        verify(loginAttemptLimiter).release(eq(Scope.IP), anyLong());
+        verify(loginAttemptLimiter, never()).reset(anyLong());
+    }
+
+    @Test
+    void wrongPasswordKeepsTheAttempts() {
+        User user = persistUserWithSessions("wrong@mailinator.com", "+84900000007", 1).getUser();
+        when(loginAttemptLimiter.tryAcquire(any(), anyLong())).thenReturn(true);
+        when(passwordHasher.matches("Wrong@123", user.getPassword())).thenReturn(false);
+        LoginRequest request = LoginRequest.builder().email(user.getEmail()).password("Wrong@123").build();
+
+        assertThatThrownBy(() -> authService.login(request, "127.0.0.1")).isInstanceOf(AuthenticationException.class);
+
+        verify(loginAttemptLimiter, never()).release(any(), anyLong());
+        verify(loginAttemptLimiter, never()).reset(anyLong());
+    }
+
+    private void logout(UserSession session) {
+        when(jwtProvider.extractClaims(ACCESS_TOKEN)).thenReturn(validToken(session.getAccessTokenId()));
+        authService.logout(session.getUser().getId(), ACCESS_TOKEN);
+    }
+
+    private void refresh(UserSession session) {
+        when(jwtProvider.extractClaims(ACCESS_TOKEN)).thenReturn(validToken(session.getAccessTokenId()));
+        when(jwtProvider.extractClaims(REFRESH_TOKEN)).thenReturn(validToken(session.getRefreshTokenId()));
+        when(jwtProvider.refreshAccessToken(eq(REFRESH_TOKEN), any(UserSessionRefresh.class))).thenReturn(new GenerateJwtResult(
+                SecurityUtils.generateRandomCode(),
+                session.getRefreshTokenId(),
+                ACCESS_TOKEN,
+                REFRESH_TOKEN,
+                Instant.now().plusSeconds(3600)
+        ));
+        authService.refreshAccessToken(ACCESS_TOKEN, REFRESH_TOKEN);
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UserSession persistUserWithSessions(String email, String phone, int sessionCount) {
+        List<UserSession> sessions = persistSessions(email, phone, sessionCount);
+        return sessions.get(sessions.size() - 1);
+    }
+
+    private List<UserSession> persistSessions(String email, String phone, int sessionCount) {
+        User user = userRepository.save(new User(Role.USER, email, phone, "Password@123", "Name", "Address"));
+        List<UserSession> sessions = userSessionRepository.saveAll(IntStream.range(0, sessionCount)
+                .mapToObj(i -> user.newUserSession(
+                        SecurityUtils.generateRandomCode(),
+                        SecurityUtils.generateRandomCode(),
+                        Instant.now().plusSeconds(3600)
+                ))
+                .toList());
+        entityManager.flush();
+        return sessions;
+    }
+
+    private static ExtractJwtResult validToken(String tokenId) {
+        return new ExtractJwtResult(CheckJwtResult.VALID, Jwts.claims().setId(tokenId));
+    }
+}
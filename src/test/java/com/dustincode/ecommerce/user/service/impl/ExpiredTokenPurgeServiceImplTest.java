@@ -0,0 +1,126 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PurgeProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.security.SecurityUtils;
+import com.dustincode.ecommerce.core.utils.DateUtils;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.UserToken;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.entity.enumerations.TokenChannel;
+import com.dustincode.ecommerce.user.entity.enumerations.TokenType;
+import com.dustincode.ecommerce.user.repository.UserRepository;
+import com.dustincode.ecommerce.user.repository.UserSessionRepository;
+import com.dustincode.ecommerce.user.repository.UserTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ExpiredTokenPurgeServiceImplTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private UserTokenRepository userTokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExpiredTokenPurgeServiceImpl purgeService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = TestApplicationProperties.builder()
+                .purge(new PurgeProperties(true, CHUNK_SIZE, Duration.ZERO, Duration.ofMinutes(10)))
+                .build();
+        purgeService = new ExpiredTokenPurgeServiceImpl(
+                userSessionRepository,
+                userTokenRepository,
+                applicationProperties,
+                meterRegistry
+        );
+        user = userRepository.save(new User(Role.USER, "purge@mailinator.com", "+84900000003", "Password@123", "Name", "Address"));
+    }
+
+    @Test
+    void purgesSessionsOnceTheirRefreshTokenCanNoLongerBeUsed() {
+        Instant now = DateUtils.currentInstant();
+        persistSessions(5, now.minus(Duration.ofHours(25)));
+        persistSessions(3, now.minus(Duration.ofHours(1)));
+        persistSessions(1, now.plus(Duration.ofHours(1)));
+
+        assertThat(purgeService.purgeExpiredSessions()).isEqualTo(5);
+        assertThat(userSessionRepository.count()).isEqualTo(4);
+        assertThat(purgedRows("t_user_sessions")).isEqualTo(5);
+        assertThat(lagSeconds("t_user_sessions")).isZero();
+    }
+
+    @Test
+    void purgesExpiredTokensInChunks() {
+        Instant now = DateUtils.currentInstant();
+        persistTokens(CHUNK_SIZE * 2, now.minusSeconds(60));
+        persistTokens(1, now.plusSeconds(1800));
+
+        assertThat(purgeService.purgeExpiredTokens()).isEqualTo(CHUNK_SIZE * 2);
+        assertThat(userTokenRepository.count()).isEqualTo(1);
+        assertThat(purgedRows("t_user_tokens")).isEqualTo(CHUNK_SIZE * 2);
+        assertThat(lagSeconds("t_user_tokens")).isZero();
+    }
+
+    private void persistSessions(int count, Instant expireTime) {
+        userSessionRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> user.newUserSession(
+                        SecurityUtils.generateRandomCode(),
+                        SecurityUtils.generateRandomCode(),
+                        expireTime
+                ))
+                .toList());
+        entityManager.flush();
+    }
+
+    private void persistTokens(int count, Instant expireTime) {
+        userTokenRepository.saveAll(IntStream.range(0, count)
+                .mapToObj(i -> UserToken.builder()
+                        .user(user)
+                        .type(TokenType.RESET_PASSWORD)
+                        .channel(TokenChannel.EMAIL)
+                        .token(SecurityUtils.generateRandomCode())
+                        .expireTime(expireTime)
+                        .build())
+                .toList());
+        entityManager.flush();
+    }
+
+    private double purgedRows(String table) {
+        return meterRegistry.get("user.purge.rows").tag("table", table).counter().count();
+    }
+
+    private double lagSeconds(String table) {
+        return meterRegistry.get("user.purge.lag").tag("table", table).timeGauge().value(TimeUnit.SECONDS);
+    }
+}
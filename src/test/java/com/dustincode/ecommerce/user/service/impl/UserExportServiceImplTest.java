@@ -0,0 +1,91 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.user.dto.UserFileFormat;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserExportServiceImplTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserExportServiceImpl userExportService;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userExportService = new UserExportServiceImpl(
+                userRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry
+        );
+        users = userRepository.saveAll(List.of(
+                new User(Role.USER, "first@mailinator.com", "+84900000021", "Password@123", "First", "Address, 1"),
+                new User(Role.ADMIN, "second@mailinator.com", "+84900000022", "Password@123", "Second", "Address 2")
+        ));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportsCsvWithAHeaderInIdOrder() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = userExportService.exportUsers(UserFileFormat.CSV, output);
+
+        // The seeded users come first, the new ids are larger
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(userRepository.count());
+        assertThat(lines).hasSize((int) rows + 1);
+        assertThat(lines.get(0)).isEqualTo("id,email,phone,role,mfaType,name,address,createdDate");
+        assertThat(lines.get(lines.size() - 2))
+                .startsWith(users.get(0).getId() + ",first@mailinator.com,\"+84900000021\",USER,NONE,First,\"Address, 1\",");
+        assertThat(lines.get(lines.size() - 1))
+                .startsWith(users.get(1).getId() + ",second@mailinator.com,\"+84900000022\",ADMIN,NONE,Second,");
+        assertThat(output.toString(StandardCharsets.UTF_8)).doesNotContain("Password@123");
+        assertThat(meterRegistry.get("user.export.rows").counter().count()).isEqualTo(rows);
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        userExportService.exportUsers(UserFileFormat.NDJSON, output);
+
+        String content = output.toString(StandardCharsets.UTF_8);
+        assertThat(content).endsWith("\n");
+        List<String> lines = content.lines().toList();
+        assertThat(lines).hasSize((int) userRepository.count());
+        JsonNode last = new ObjectMapper().readTree(lines.get(lines.size() - 1));
+        assertThat(last.get("id").isTextual()).isTrue();
+        assertThat(last.get("id").asText()).isEqualTo(String.valueOf(users.get(1).getId()));
+        assertThat(last.get("email").asText()).isEqualTo("second@mailinator.com");
+        assertThat(last.has("password")).isFalse();
+    }
+}
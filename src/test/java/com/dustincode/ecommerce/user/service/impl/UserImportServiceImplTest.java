@@ -0,0 +1,150 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PasswordProperties;
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.UserImportProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.security.PasswordHasher;
+import com.dustincode.ecommerce.user.dto.UserImportFailure;
+import com.dustincode.ecommerce.user.dto.UserFileFormat;
+import com.dustincode.ecommerce.user.dto.UserImportProgress;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.dustincode.ecommerce.core.constant.MessageConstant.IMPORT_ROW_MALFORMED_ERR;
+import static com.dustincode.ecommerce.core.constant.MessageConstant.USER_ALREADY_EXIST_ERR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserImportServiceImplTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final String ENCODED_PASSWORD = "$2a$10$Sr9JLpca9R/XhvIsvf1iCupQIYspmERcCt8yAtlbNCxjimMjwnuHq";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PasswordHasher passwordHasher;
+    private UserImportServiceImpl userImportService;
+    private List<UserImportProgress> progress;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = TestApplicationProperties.builder()
+                .password(new PasswordProperties(1, 1, Duration.ZERO, 4, 4))
+                .userImport(new UserImportProperties(CHUNK_SIZE))
+                .build();
+        passwordHasher = new PasswordHasher(applicationProperties, meterRegistry);
+        userImportService = new UserImportServiceImpl(
+                userRepository,
+                passwordHasher,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                new TransactionTemplate(transactionManager),
+                applicationProperties,
+                meterRegistry
+        );
+        progress = new ArrayList<>();
+        userRepository.save(new User(Role.USER, "existing@mailinator.com", "+84900000010", "Password@123", "Name", "Address"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void importsCsvInChunksAndReportsTheFailedRows() {
+        String csv = """
+                id,email,phone,password,name,address,role
+                1,first@mailinator.com,+84900000011,Password@123,First,Address,ADMIN
+                2,FIRST@mailinator.com,+84900000012,Password@123,Second,Address,USER
+                3,third@mailinator.com,+84900000013,%s,Third,Address,USER
+                4,not-an-email,+84900000014,Password@123,Fourth,Address,USER
+                5,existing@mailinator.com,+84900000015,Password@123,Fifth,Address,USER
+                """.formatted(ENCODED_PASSWORD);
+
+        userImportService.importUsers(input(csv), UserFileFormat.CSV, progress::add);
+
+        assertThat(progress).extracting(UserImportProgress::chunk).containsExactly(1, 2, 3);
+        UserImportProgress last = progress.get(2);
+        assertThat(last.processedRows()).isEqualTo(5);
+        assertThat(last.importedRows()).isEqualTo(2);
+        assertThat(last.failedRows()).isEqualTo(3);
+        assertThat(progress.get(0).failures()).containsExactly(
+                new UserImportFailure(2, "FIRST@mailinator.com", USER_ALREADY_EXIST_ERR)
+        );
+        assertThat(progress.get(1).failures()).containsExactly(
+                new UserImportFailure(4, "not-an-email", "error.validate.email.invalid")
+        );
+        assertThat(last.failures()).containsExactly(
+                new UserImportFailure(5, "existing@mailinator.com", USER_ALREADY_EXIST_ERR)
+        );
+
+        User first = userRepository.findByEmail("first@mailinator.com").orElseThrow();
+        assertThat(first.getRole()).isEqualTo(Role.USER);
+        assertThat(first.getUserDetail().getName()).isEqualTo("First");
+        assertThat(passwordHasher.matches("Password@123", first.getPassword())).isTrue();
+        assertThat(userRepository.findByEmail("third@mailinator.com").orElseThrow().getPassword())
+                .isEqualTo(ENCODED_PASSWORD);
+    }
+
+    @Test
+    void ndjsonSkipsRowsThatDoNotMap() {
+        String ndjson = """
+                {"email":"first@mailinator.com","phone":"+84900000011","password":"Password@123","name":"First","address":"Address"}
+                {"email":["second@mailinator.com"],"phone":"+84900000012"}
+                {"email":"third@mailinator.com","phone":"+84900000013","password":"Password@123","name":"Third","address":"Address"}
+                """;
+
+        userImportService.importUsers(input(ndjson), UserFileFormat.NDJSON, progress::add);
+
+        assertThat(progress).hasSize(2);
+        assertThat(progress.get(0).failures()).containsExactly(new UserImportFailure(2, null, IMPORT_ROW_MALFORMED_ERR));
+        assertThat(progress.get(1).importedRows()).isEqualTo(2);
+        assertThat(userRepository.findByEmail("third@mailinator.com")).isPresent();
+    }
+
+    @Test
+    void syntaxErrorStopsTheImport() {
+        String ndjson = """
+                {"email":"first@mailinator.com","phone":"+84900000011","password":"Password@123","name":"First","address":"Address"}
+                {"email":
+                """;
+
+        userImportService.importUsers(input(ndjson), UserFileFormat.NDJSON, progress::add);
+
+        assertThat(progress).hasSize(1);
+        assertThat(progress.get(0).importedRows()).isEqualTo(1);
+        assertThat(progress.get(0).failures()).containsExactly(new UserImportFailure(2, null, IMPORT_ROW_MALFORMED_ERR));
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,245 @@
+package com.dustincode.ecommerce.user.service.impl;
+
+import com.dustincode.ecommerce.core.configs.ApplicationProperties.PaginationProperties;
+import com.dustincode.ecommerce.core.configs.TestApplicationProperties;
+import com.dustincode.ecommerce.core.exceptions.BadRequestException;
+import com.dustincode.ecommerce.core.utils.query.PageCounter;
+import com.dustincode.ecommerce.core.utils.query.PaginationMode;
+import com.dustincode.ecommerce.core.utils.query.QueryPage;
+import com.dustincode.ecommerce.core.utils.query.filter.InstantFilter;
+import com.dustincode.ecommerce.core.utils.query.filter.StringFilter;
+import com.dustincode.ecommerce.user.dto.UserCriteria;
+import com.dustincode.ecommerce.user.dto.UserCriteria.RoleFilter;
+import com.dustincode.ecommerce.user.dto.UserCursor;
+import com.dustincode.ecommerce.user.entity.User;
+import com.dustincode.ecommerce.user.entity.enumerations.Role;
+import com.dustincode.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserQueryServiceImplTest {
+
+    private static final Instant CREATED_DATE = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserQueryServiceImpl userQueryService;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        PageCounter pageCounter = new PageCounter(
+                entityManager,
+                jdbcTemplate,
+                transactionManager,
+                Runnable::run,
+                TestApplicationProperties.builder()
+                        .pagination(new PaginationProperties(Duration.ofMinutes(1), Duration.ofMinutes(15), 100, 2))
+                        .build(),
+                meterRegistry
+        );
+        userQueryService = new UserQueryServiceImpl(userRepository, entityManager, pageCounter);
+        users = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            User user = userRepository.save(new User(
+                    i % 2 == 0 ? Role.ADMIN : Role.USER,
+                    "search" + i + "@mailinator.com",
+                    "+8490000003" + i,
+                    "Password@123",
+                    "Name " + i,
+                    "Address"
+            ));
+            users.add(user);
+        }
+        entityManager.flush();
+        // The last two users share a created date, the id decides their order
+        for (int i = 0; i < users.size(); i++) {
+            Instant createdDate = CREATED_DATE.plusSeconds(Math.min(i, 3));
+            jdbcTemplate.update("update t_users set created_date = ? where id = ?", Timestamp.from(createdDate), users.get(i).getId());
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesFollowTheCursorNewestFirst() {
+        UserCriteria criteria = createdSince(CREATED_DATE);
+
+        List<Long> ids = new ArrayList<>();
+        UserCursor cursor = null;
+        Window<User> page;
+        do {
+            page = userQueryService.findByCriteria(criteria, cursor, 2, PaginationMode.SLICE).window();
+            page.forEach(user -> ids.add(user.getId()));
+            cursor = page.isEmpty() ? null : UserCursor.decode(UserCursor.of(page.getContent().get(page.size() - 1)).encode());
+        } while (page.hasNext());
+
+        List<Long> tied = users.subList(3, 5).stream().map(User::getId).sorted((a, b) -> Long.compare(b, a)).toList();
+        assertThat(ids).containsExactly(
+                tied.get(0),
+                tied.get(1),
+                users.get(2).getId(),
+                users.get(1).getId(),
+                users.get(0).getId()
+        );
+    }
+
+    @Test
+    void filtersAreCombined() {
+        UserCriteria criteria = createdSince(CREATED_DATE);
+        criteria.setRole((RoleFilter) new RoleFilter().setEquals(Role.ADMIN));
+        criteria.setEmail(new StringFilter().setContains("SEARCH4"));
+
+        Window<User> page = userQueryService.findByCriteria(criteria, null, 10, PaginationMode.SLICE).window();
+
+        assertThat(page.getContent()).extracting(User::getEmail).containsExactly("search4@mailinator.com");
+        assertThat(page.getContent().get(0).getUserDetail().getName()).isEqualTo("Name 4");
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void sameScalarFiltersWithOtherValuesReuseTheQueryPlan() {
+        UserCriteria criteria = createdSince(CREATED_DATE);
+        criteria.setRole((RoleFilter) new RoleFilter().setEquals(Role.ADMIN));
+        UserCriteria other = createdSince(CREATED_DATE.plusSeconds(2));
+        other.setRole((RoleFilter) new RoleFilter().setEquals(Role.USER));
+
+        List<User> users = assertReusesQueryPlan(criteria, other);
+
+        assertThat(users).extracting(User::getEmail).containsExactly("search5@mailinator.com", "search3@mailinator.com");
+    }
+
+    @Test
+    void sameInFiltersWithOtherValuesReuseTheQueryPlan() {
+        UserCriteria criteria = createdSince(CREATED_DATE);
+        criteria.setRole((RoleFilter) new RoleFilter().setIn(List.of(Role.ADMIN, Role.SUPER_ADMIN, Role.ADMIN)));
+        UserCriteria other = createdSince(CREATED_DATE.plusSeconds(2));
+        // Three and four values are both padded to four parameters
+        other.setRole((RoleFilter) new RoleFilter().setIn(List.of(Role.USER, Role.USER, Role.SUPER_ADMIN, Role.USER)));
+
+        List<User> users = assertReusesQueryPlan(criteria, other);
+
+        assertThat(users).extracting(User::getEmail).containsExactly("search5@mailinator.com", "search3@mailinator.com");
+    }
+
+    @Test
+    void exactCountIsTheSameOnEveryPage() {
+        UserCriteria criteria = createdSince(CREATED_DATE);
+
+        QueryPage<User> first = userQueryService.findByCriteria(criteria, null, 2, PaginationMode.EXACT);
+        UserCursor cursor = UserCursor.of(first.window().getContent().get(1));
+        QueryPage<User> second = userQueryService.findByCriteria(criteria, cursor, 2, PaginationMode.EXACT);
+
+        assertThat(first.mode()).isEqualTo(PaginationMode.EXACT);
+        assertThat(first.totalCount()).isEqualTo(5);
+        assertThat(second.totalCount()).isEqualTo(5);
+        assertThat(second.window().getContent()).hasSize(2);
+    }
+
+    @Test
+    void sliceHasNoTotal() {
+        QueryPage<User> page = userQueryService.findByCriteria(createdSince(CREATED_DATE), null, 10, PaginationMode.SLICE);
+
+        assertThat(page.mode()).isEqualTo(PaginationMode.SLICE);
+        assertThat(page.totalCount()).isNull();
+        assertThat(page.window().getContent()).hasSize(5);
+    }
+
+    @Test
+    void estimatedCountIsCachedPerFiltersAndValues() {
+        UserCriteria criteria = createdSince(CREATED_DATE);
+        criteria.setRole((RoleFilter) new RoleFilter().setEquals(Role.ADMIN));
+
+        QueryPage<User> page = userQueryService.findByCriteria(criteria, null, 10, PaginationMode.ESTIMATED);
+        jdbcTemplate.update("update t_users set role = 'ADMIN' where id = ?", users.get(0).getId());
+        QueryPage<User> cached = userQueryService.findByCriteria(criteria, null, 10, PaginationMode.ESTIMATED);
+        // H2 has no table statistics, the unfiltered estimate is a cached count too
+        QueryPage<User> unfiltered = userQueryService.findByCriteria(new UserCriteria(), null, 10, PaginationMode.ESTIMATED);
+
+        assertThat(page.mode()).isEqualTo(PaginationMode.ESTIMATED);
+        assertThat(page.totalCount()).isEqualTo(2);
+        assertThat(cached.totalCount()).isEqualTo(2);
+        assertThat(cached.window().getContent()).hasSize(3);
+        assertThat(unfiltered.totalCount()).isEqualTo(userRepository.count());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", PageCounter.CACHE_NAME).tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void everyUserHasACursorPosition() {
+        assertThatThrownBy(() -> jdbcTemplate.update("update t_users set created_date = null where id = ?", users.get(0).getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void rejectsAnInvalidCursorOrPageSize() {
+        assertThatThrownBy(() -> UserCursor.decode("not a cursor")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> userQueryService.findByCriteria(new UserCriteria(), null, 0, PaginationMode.SLICE))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> userQueryService.findByCriteria(
+                new UserCriteria(),
+                null,
+                UserQueryServiceImpl.MAX_PAGE_SIZE + 1,
+                PaginationMode.SLICE
+        ))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    /**
+     * Hibernate counts a hit for the parsed JPQL and another one for its translation to SQL, the latter only when the
+     * query has no multi-valued parameter.
+     */
+    private List<User> assertReusesQueryPlan(UserCriteria criteria, UserCriteria other) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        userQueryService.findByCriteria(criteria, null, 10, PaginationMode.SLICE);
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        List<User> users = userQueryService.findByCriteria(other, null, 10, PaginationMode.SLICE).window().getContent();
+
+        assertThat(statistics.getQueryPlanCacheHitCount() - hits).isEqualTo(2);
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+        return users;
+    }
+
+    private static UserCriteria createdSince(Instant createdDate) {
+        UserCriteria criteria = new UserCriteria();
+        criteria.setCreatedDate(new InstantFilter().setGreaterThanOrEqual(createdDate));
+        return criteria;
+    }
+}